@@ -0,0 +1,65 @@
+package com.template.benchmarks;
+
+import static com.template.benchmarks.LedgerFixtures.ALICE;
+import static com.template.benchmarks.LedgerFixtures.BOB;
+
+import com.template.contracts.IOUContract;
+import com.template.contracts.XoGameContract;
+import com.template.model.XoGameField;
+import com.template.states.IOUState;
+import com.template.states.XoGameState;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import net.corda.core.transactions.LedgerTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Contract verification for the same transactions which contract tests accept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContractVerifyBenchmark {
+
+    private final XoGameContract xoGameContract = new XoGameContract();
+    private final IOUContract iouContract = new IOUContract();
+    private LedgerTransaction startGameTx;
+    private LedgerTransaction makeStepTx;
+    private LedgerTransaction iouTx;
+
+    @Setup
+    public void setup() {
+        XoGameState xoGameState = new XoGameState("First game", ALICE.getParty(), BOB.getParty());
+        XoGameState xoGameState2 = new XoGameState("First game", ALICE.getParty(), BOB.getParty(), BOB.getParty(),
+            XoGameField.valueOf("----X----"));
+        startGameTx = LedgerFixtures.ledgerTransaction(XoGameContract.ID, Collections.emptyList(),
+            Collections.singletonList(xoGameState), new XoGameContract.Commands.StartGame());
+        makeStepTx = LedgerFixtures.ledgerTransaction(XoGameContract.ID, Collections.singletonList(xoGameState),
+            Collections.singletonList(xoGameState2), new XoGameContract.Commands.MakeStep());
+
+        IOUState iouState = new IOUState(ALICE.getParty(), BOB.getParty(), 1);
+        iouTx = LedgerFixtures.ledgerTransaction(IOUContract.ID, Collections.emptyList(),
+            Collections.singletonList(iouState), new IOUContract.Commands.Action());
+    }
+
+    @Benchmark
+    public void xoGameStartGame() {
+        xoGameContract.verify(startGameTx);
+    }
+
+    @Benchmark
+    public void xoGameMakeStep() {
+        xoGameContract.verify(makeStepTx);
+    }
+
+    @Benchmark
+    public void iouIssue() {
+        iouContract.verify(iouTx);
+    }
+}
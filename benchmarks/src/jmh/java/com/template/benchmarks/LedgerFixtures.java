@@ -0,0 +1,56 @@
+package com.template.benchmarks;
+
+import java.security.PublicKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.corda.core.contracts.CommandData;
+import net.corda.core.contracts.ContractState;
+import net.corda.core.identity.CordaX500Name;
+import net.corda.core.transactions.LedgerTransaction;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.testing.core.TestIdentity;
+import net.corda.testing.node.MockServices;
+
+/**
+ * Identities and ledger transactions shared by contract benchmarks, parties are the same as in contract tests.
+ */
+public class LedgerFixtures {
+
+    public static final TestIdentity ALICE = new TestIdentity(new CordaX500Name("Alice", "London", "GB"));
+    public static final TestIdentity BOB = new TestIdentity(new CordaX500Name("Bob", "Glasgow", "GB"));
+    public static final TestIdentity NOTARY = new TestIdentity(new CordaX500Name("Notary", "London", "GB"));
+
+    private static final MockServices services = new MockServices(Collections.singletonList("com.template.contracts"), ALICE);
+
+    /**
+     * Transaction is resolved through MockServices once, on benchmark setup: inputs are issued by previous
+     * transaction recorded in the same services, so contract verification gets the same ledger view as on node.
+     */
+    public static LedgerTransaction ledgerTransaction(String contractId, List<? extends ContractState> inputs,
+        List<? extends ContractState> outputs, CommandData command) {
+        List<PublicKey> signers = Arrays.asList(ALICE.getPublicKey(), BOB.getPublicKey());
+        TransactionBuilder builder = new TransactionBuilder(NOTARY.getParty())
+            .addCommand(command, signers);
+        if (!inputs.isEmpty()) {
+            TransactionBuilder issueBuilder = new TransactionBuilder(NOTARY.getParty())
+                .addCommand(command, signers);
+            for (ContractState input : inputs) {
+                issueBuilder.addOutputState(input, contractId);
+            }
+            SignedTransaction issueTx = services.signInitialTransaction(issueBuilder);
+            services.recordTransactions(issueTx);
+            for (int i = 0; i < inputs.size(); i++) {
+                builder.addInputState(issueTx.getTx().outRef(i));
+            }
+        }
+        for (ContractState output : outputs) {
+            builder.addOutputState(output, contractId);
+        }
+        return builder.toLedgerTransaction(services);
+    }
+
+    private LedgerFixtures() {
+    }
+}
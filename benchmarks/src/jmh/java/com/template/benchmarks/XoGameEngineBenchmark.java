@@ -0,0 +1,114 @@
+package com.template.benchmarks;
+
+import static com.template.model.XoState.O;
+import static com.template.model.XoState.X;
+
+import com.template.model.XoGameField;
+import com.template.model.XoState;
+import com.template.model.XoWinner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-call cost of winner detection: row/column/diagonal scan over XoState[][] (how XoGameField worked before)
+ * against lookup in precomputed table of XoGameEngine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class XoGameEngineBenchmark {
+
+    @Param({"----X----", "XXXOO----", "XOXXOOOXX", "OX-XO-X-O"})
+    public String board;
+
+    private XoGameField field;
+    private XoState[][] cells;
+
+    @Setup
+    public void setup() {
+        field = new XoGameField(board);
+        cells = new XoState[3][3];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                cells[row][col] = field.get(row, col);
+            }
+        }
+    }
+
+    @Benchmark
+    public XoWinner arrayScan() {
+        return ArrayScan.determineWinner(cells);
+    }
+
+    @Benchmark
+    public XoWinner tableLookup() {
+        return field.determineWinner();
+    }
+
+    @Benchmark
+    public boolean tableLookupGameOver() {
+        return field.isGameOver();
+    }
+
+    /**
+     * Copy of previous XoGameField.determineWinner() implementation kept as baseline
+     */
+    static class ArrayScan {
+
+        static XoWinner determineWinner(XoState[][] cells) {
+            for (int i = 0; i < 3; i++) {
+                if (checkRow(cells, i, X)) {
+                    return XoWinner.X_WIN;
+                }
+                if (checkRow(cells, i, O)) {
+                    return XoWinner.O_WIN;
+                }
+                if (checkCol(cells, i, X)) {
+                    return XoWinner.X_WIN;
+                }
+                if (checkCol(cells, i, O)) {
+                    return XoWinner.O_WIN;
+                }
+            }
+            if (checkDiags(cells, X)) {
+                return XoWinner.X_WIN;
+            }
+            if (checkDiags(cells, O)) {
+                return XoWinner.O_WIN;
+            }
+            return XoWinner.NONE;
+        }
+
+        private static boolean checkRow(XoState[][] cells, int row, XoState state) {
+            for (int i = 0; i < 3; i++) {
+                if (cells[row][i] != state) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean checkCol(XoState[][] cells, int col, XoState state) {
+            for (int i = 0; i < 3; i++) {
+                if (cells[i][col] != state) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean checkDiags(XoState[][] cells, XoState state) {
+            if (cells[1][1] != state) {
+                return false;
+            }
+            return (cells[0][0] == state && cells[2][2] == state) || (cells[2][0] == state && cells[0][2] == state);
+        }
+    }
+}
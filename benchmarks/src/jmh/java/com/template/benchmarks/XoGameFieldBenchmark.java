@@ -0,0 +1,54 @@
+package com.template.benchmarks;
+
+import com.template.model.XoGameField;
+import com.template.model.XoState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing of game field from its string form and validation of single step between two fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class XoGameFieldBenchmark {
+
+    private String board = "XO-XO----";
+
+    private XoGameField before;
+    private XoGameField validStep;
+    private XoGameField invalidStep;
+
+    @Setup
+    public void setup() {
+        before = XoGameField.valueOf(board);
+        validStep = XoGameField.valueOf("XO-XO-X--");
+        invalidStep = XoGameField.valueOf("XO-XOXX--");
+    }
+
+    @Benchmark
+    public XoGameField parseConstructor() {
+        return new XoGameField(board);
+    }
+
+    @Benchmark
+    public XoGameField parseShared() {
+        return XoGameField.valueOf(board);
+    }
+
+    @Benchmark
+    public boolean checkCellChangeValidityValid() {
+        return before.checkCellChangeValidity(validStep, XoState.X);
+    }
+
+    @Benchmark
+    public boolean checkCellChangeValidityInvalid() {
+        return before.checkCellChangeValidity(invalidStep, XoState.X);
+    }
+}
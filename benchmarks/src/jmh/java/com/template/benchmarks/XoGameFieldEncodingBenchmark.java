@@ -0,0 +1,65 @@
+package com.template.benchmarks;
+
+import com.template.model.XoGameField;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of XoGameField to String encoding used by AMQP serialization (getStr) and vault mapping (toString).
+ * Run with GC profiler (enabled in build.gradle) and check gc.alloc.rate.norm: shared field encoding
+ * should allocate nothing, legacy concatenation is kept as baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class XoGameFieldEncodingBenchmark {
+
+    private XoGameField field;
+
+    @Setup
+    public void setup() {
+        field = XoGameField.valueOf("XO-XO-X--");
+    }
+
+    @Benchmark
+    public String legacyConcatenation() {
+        String result = "";
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                switch (field.get(row, col)) {
+                    case E:
+                        result += '-';
+                        break;
+                    case X:
+                        result += 'X';
+                        break;
+                    case O:
+                        result += 'O';
+                        break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String serializationGetter() {
+        return field.getStr();
+    }
+
+    @Benchmark
+    public String vaultMappingToString() {
+        return field.toString();
+    }
+
+    @Benchmark
+    public String prettyPrint() {
+        return field.toPrettyPrintString();
+    }
+}
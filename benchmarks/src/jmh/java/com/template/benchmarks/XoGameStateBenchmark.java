@@ -0,0 +1,90 @@
+package com.template.benchmarks;
+
+import static com.template.benchmarks.LedgerFixtures.ALICE;
+import static com.template.benchmarks.LedgerFixtures.BOB;
+
+import com.template.contracts.XoGameContract;
+import com.template.model.XoGameField;
+import com.template.states.XoGameState;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.corda.core.transactions.LedgerTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Equality and hashing of game states: MakeStep verification and usage of states as HashSet/HashMap keys.
+ * Plain contract verification numbers are in {@link ContractVerifyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class XoGameStateBenchmark {
+
+    @Param({"1000"})
+    public int statesCount;
+
+    private final XoGameContract contract = new XoGameContract();
+    private LedgerTransaction makeStepTx;
+    private XoGameState[] states;
+    private XoGameState[] equalStates;
+    private Set<XoGameState> stateSet;
+    private Map<XoGameState, String> stateMap;
+
+    @Setup
+    public void setup() {
+        XoGameState input = new XoGameState("First game", ALICE.getParty(), BOB.getParty());
+        XoGameState output = new XoGameState("First game", ALICE.getParty(), BOB.getParty(), BOB.getParty(),
+            XoGameField.valueOf("----X----"));
+        makeStepTx = LedgerFixtures.ledgerTransaction(XoGameContract.ID, Collections.singletonList(input),
+            Collections.singletonList(output), new XoGameContract.Commands.MakeStep());
+
+        states = new XoGameState[statesCount];
+        equalStates = new XoGameState[statesCount];
+        stateSet = new HashSet<>();
+        stateMap = new HashMap<>();
+        for (int i = 0; i < statesCount; i++) {
+            states[i] = new XoGameState("Game " + i, ALICE.getParty(), BOB.getParty());
+            equalStates[i] = new XoGameState("Game " + i, ALICE.getParty(), BOB.getParty());
+            stateSet.add(states[i]);
+            stateMap.put(states[i], states[i].getGameId());
+        }
+    }
+
+    @Benchmark
+    public void verifyMakeStep() {
+        contract.verify(makeStepTx);
+    }
+
+    @Benchmark
+    public void hashSetContains(Blackhole blackhole) {
+        for (XoGameState state : equalStates) {
+            blackhole.consume(stateSet.contains(state));
+        }
+    }
+
+    @Benchmark
+    public void hashMapGet(Blackhole blackhole) {
+        for (XoGameState state : equalStates) {
+            blackhole.consume(stateMap.get(state));
+        }
+    }
+
+    @Benchmark
+    public Set<XoGameState> hashSetBuild() {
+        Set<XoGameState> set = new HashSet<>();
+        Collections.addAll(set, states);
+        return set;
+    }
+}
@@ -1,9 +1,14 @@
 package com.template.webserver;
 
+import com.template.webserver.rpc.RpcConnectionPool;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import net.corda.client.rpc.CordaRPCClient;
-import net.corda.client.rpc.CordaRPCConnection;
 import net.corda.core.messaging.CordaRPCOps;
 import net.corda.core.utilities.NetworkHostAndPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,9 +16,11 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 /**
- * Wraps an RPC connection to a Corda node.
+ * Wraps a pool of RPC connections to a Corda node.
  *
- * The RPC connection is configured using command line arguments.
+ * The RPC connection is configured using command line arguments. {@link #getProxy()} returns single proxy which
+ * spreads calls over {@code config.rpc.pool-size} connections and survives node restarts, so it is safe to keep it
+ * in fields, see {@link RpcConnectionPool}.
  */
 @Component
 public class NodeRPCConnection implements AutoCloseable {
@@ -29,24 +36,56 @@ public class NodeRPCConnection implements AutoCloseable {
     // The password for logging into the RPC client.
     @Value("${config.rpc.port}")
     private int rpcPort;
+    // Number of RPC connections to the node.
+    @Value("${config.rpc.pool-size:4}")
+    private int poolSize;
+    // Limit of concurrent RPC calls per connection, further calls wait for free slot.
+    @Value("${config.rpc.max-in-flight:32}")
+    private int maxInFlight;
+    // How long call could wait for free slot.
+    @Value("${config.rpc.borrow-timeout-ms:30000}")
+    private long borrowTimeoutMillis;
+    // Interval of connections health check.
+    @Value("${config.rpc.health-check-interval-ms:10000}")
+    private long healthCheckIntervalMillis;
+    // How long call waits for reconnect when all connections are lost.
+    @Value("${config.rpc.reconnect-wait-ms:5000}")
+    private long reconnectWaitMillis;
 
-    private CordaRPCConnection rpcConnection;
-    private CordaRPCOps proxy;
+    private static final Logger logger = LoggerFactory.getLogger(NodeRPCConnection.class);
+    private static final String JMX_NAME = "com.template.webserver:type=RpcConnectionPool";
+
+    private RpcConnectionPool pool;
 
     @PostConstruct
     public void initialiseNodeRPCConnection() {
         NetworkHostAndPort rpcAddress = new NetworkHostAndPort(host, rpcPort);
         CordaRPCClient rpcClient = new CordaRPCClient(rpcAddress);
-        rpcConnection = rpcClient.start(username, password);
-        proxy = rpcConnection.getProxy();
+        pool = new RpcConnectionPool(() -> rpcClient.start(username, password), poolSize, maxInFlight, borrowTimeoutMillis,
+            healthCheckIntervalMillis, reconnectWaitMillis);
+        pool.start();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(pool, new ObjectName(JMX_NAME));
+        } catch (JMException e) {
+            logger.warn("Failed to export RPC pool metrics to JMX", e);
+        }
     }
 
     @PreDestroy
     public void close() {
-        rpcConnection.notifyServerAndClose();
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(JMX_NAME));
+        } catch (JMException e) {
+            logger.debug("RPC pool metrics weren't exported to JMX", e);
+        }
+        pool.close();
     }
 
     public CordaRPCOps getProxy() {
-        return proxy;
+        return pool.getProxy();
+    }
+
+    public RpcConnectionPool getPool() {
+        return pool;
     }
 }
\ No newline at end of file
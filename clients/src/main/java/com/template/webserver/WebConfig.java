@@ -0,0 +1,23 @@
+package com.template.webserver;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Flow start endpoints return futures, so servlet thread is released while flow is running. Request is completed
+ * with 503 when flow doesn't finish in {@code config.flows.timeout-ms}; flow itself continues and its status is
+ * available from /flows/{id}.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Value("${config.flows.timeout-ms:300000}")
+    private long flowTimeoutMillis;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(flowTimeoutMillis);
+    }
+}
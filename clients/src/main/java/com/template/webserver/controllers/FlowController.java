@@ -0,0 +1,37 @@
+package com.template.webserver.controllers;
+
+import com.template.webserver.dto.FlowStatusDto;
+import com.template.webserver.flows.FlowRegistry;
+import java.util.UUID;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Status of flows started by this web server
+ */
+@RestController
+@RequestMapping("/flows")
+public class FlowController {
+
+    private final FlowRegistry flowRegistry;
+
+    public FlowController(FlowRegistry flowRegistry) {
+        this.flowRegistry = flowRegistry;
+    }
+
+    /**
+     * Current progress tracker step of running flow or result of finished one
+     */
+    @GetMapping(value = "{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<FlowStatusDto> getFlowStatus(@PathVariable("id") UUID id) {
+        FlowStatusDto status = flowRegistry.getStatus(id);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status);
+    }
+}
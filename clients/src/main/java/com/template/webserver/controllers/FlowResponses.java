@@ -0,0 +1,77 @@
+package com.template.webserver.controllers;
+
+import com.template.webserver.rpc.RpcUnavailableException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.servlet.http.HttpServletRequest;
+import net.corda.client.rpc.RPCException;
+import net.corda.core.flows.StateMachineRunId;
+import net.corda.core.transactions.SignedTransaction;
+import org.slf4j.Logger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds HTTP responses of flow start endpoints without blocking servlet threads.
+ * <p>
+ * By default response is completed when flow finishes. Client which sends {@code Prefer: respond-async} header
+ * gets 202 Accepted right away with {@code Location} of flow status resource, see {@link FlowController}.
+ */
+final class FlowResponses {
+
+    static final String FLOW_ID_HEADER = "X-Flow-Id";
+
+    private FlowResponses() {
+    }
+
+    static CompletableFuture<ResponseEntity<String>> respond(HttpServletRequest request, StateMachineRunId flowId,
+        CompletableFuture<SignedTransaction> result, HttpStatus successStatus, Logger logger) {
+        String id = flowId.getUuid().toString();
+        if (isRespondAsync(request)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/flows/" + id)
+                .header(FLOW_ID_HEADER, id)
+                .body("Flow " + id + " started.\n"));
+        }
+        return result.handle((signedTx, error) -> {
+            if (error == null) {
+                return ResponseEntity.status(successStatus)
+                    .header(FLOW_ID_HEADER, id)
+                    .body("Transaction id " + signedTx.getId() + " committed to ledger.\n");
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RPCException) {
+                // Flow keeps running on node, its outcome could be looked up later
+                logger.warn("Connection to node lost while waiting for flow {}", id, cause);
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RpcExceptionHandler.RETRY_AFTER_SECONDS)
+                    .header(HttpHeaders.LOCATION, "/flows/" + id)
+                    .header(FLOW_ID_HEADER, id)
+                    .body("Connection to node lost, outcome of flow " + id + " is unknown.\n");
+            }
+            return badRequest(cause, logger);
+        });
+    }
+
+    static CompletableFuture<ResponseEntity<String>> failed(Throwable ex, Logger logger) {
+        return CompletableFuture.completedFuture(badRequest(ex, logger));
+    }
+
+    static CompletableFuture<ResponseEntity<String>> badRequest(String message) {
+        return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(message));
+    }
+
+    private static ResponseEntity<String> badRequest(Throwable ex, Logger logger) {
+        logger.error(ex.getMessage(), ex);
+        if (ex instanceof RpcUnavailableException) {
+            return RpcExceptionHandler.serviceUnavailable((RpcUnavailableException) ex);
+        }
+        return ResponseEntity.badRequest().body(ex.getMessage() != null ? ex.getMessage() : ex.toString());
+    }
+
+    private static boolean isRespondAsync(HttpServletRequest request) {
+        String prefer = request.getHeader("Prefer");
+        return prefer != null && prefer.toLowerCase().contains("respond-async");
+    }
+}
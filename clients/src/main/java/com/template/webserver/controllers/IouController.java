@@ -3,13 +3,22 @@ package com.template.webserver.controllers;
 import com.template.flows.iou.IOUFlow;
 import com.template.states.IOUState;
 import com.template.webserver.NodeRPCConnection;
+import com.template.webserver.dto.IouDto;
+import com.template.webserver.dto.PageDto;
+import com.template.webserver.flows.FlowRegistry;
+import com.template.webserver.network.NetworkMapView;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import net.corda.core.contracts.StateAndRef;
 import net.corda.core.identity.CordaX500Name;
 import net.corda.core.identity.Party;
 import net.corda.core.messaging.CordaRPCOps;
+import net.corda.core.messaging.FlowProgressHandle;
+import net.corda.core.node.services.Vault;
+import net.corda.core.node.services.vault.PageSpecification;
 import net.corda.core.transactions.SignedTransaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +28,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -29,20 +39,31 @@ import org.springframework.web.bind.annotation.RestController;
 public class IouController {
 
     private final CordaRPCOps proxy;
-    private final CordaX500Name myLegalName;
+    private final FlowRegistry flowRegistry;
+    private final NetworkMapView networkMap;
+    private final Party me;
     private final static Logger logger = LoggerFactory.getLogger(IouController.class);
 
-    public IouController(NodeRPCConnection rpc) {
+    public IouController(NodeRPCConnection rpc, FlowRegistry flowRegistry, NetworkMapView networkMap) {
         this.proxy = rpc.getProxy();
-        this.myLegalName = proxy.nodeInfo().getLegalIdentities().get(0).getName();
+        this.flowRegistry = flowRegistry;
+        this.networkMap = networkMap;
+        this.me = networkMap.getMyIdentity();
     }
 
     /**
-     * Displays all IOU states that exist in the node's vault.
+     * Displays one page of IOU states that exist in the node's vault, newest first. Optionally only states recorded
+     * after given time are returned.
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<StateAndRef<IOUState>>> getIOUs() {
-        return ResponseEntity.ok(proxy.vaultQuery(IOUState.class).getStates());
+    public ResponseEntity<PageDto<IouDto>> getIOUs(
+        @RequestParam(value = "page", defaultValue = "1") int page,
+        @RequestParam(value = "size", defaultValue = "50") int size,
+        @RequestParam(value = "createdAfter", required = false) Instant createdAfter) {
+        PageSpecification pageSpec = VaultPaging.pageSpecification(page, size);
+        Vault.Page<IOUState> ious = proxy.vaultQueryBy(VaultPaging.unconsumed(createdAfter), pageSpec,
+            VaultPaging.NEWEST_FIRST, IOUState.class);
+        return ResponseEntity.ok(VaultPaging.toPageDto(ious, pageSpec, IouDto::new));
     }
 
     /**
@@ -57,31 +78,28 @@ public class IouController {
      * The flow is invoked asynchronously. It returns a future when the flow's call() method returns.
      */
     @PostMapping(produces = MediaType.TEXT_PLAIN_VALUE, headers = "Content-Type=application/x-www-form-urlencoded")
-    public ResponseEntity<String> createIOU(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<String>> createIOU(HttpServletRequest request) {
         Integer iouValue = Integer.valueOf(request.getParameter("iouValue"));
         String partyName = request.getParameter("partyName");
         if (partyName == null) {
-            return ResponseEntity.badRequest().body("Query parameter 'partyName' must not be null.\n");
+            return FlowResponses.badRequest("Query parameter 'partyName' must not be null.\n");
         }
         ;
         if (iouValue <= 0) {
-            return ResponseEntity.badRequest().body("Query parameter 'iouValue' must be non-negative.\n");
+            return FlowResponses.badRequest("Query parameter 'iouValue' must be non-negative.\n");
         }
         CordaX500Name partyX500Name = CordaX500Name.parse(partyName);
-        Party otherParty = proxy.wellKnownPartyFromX500Name(partyX500Name);
+        Party otherParty = networkMap.wellKnownParty(partyX500Name);
         if (otherParty == null) {
-            return ResponseEntity.badRequest().body("Party named $partyName cannot be found.\n");
+            return FlowResponses.badRequest("Party named " + partyName + " cannot be found.\n");
         }
 
         try {
-            SignedTransaction signedTx = proxy.startTrackedFlowDynamic(IOUFlow.Initiator.class, otherParty, iouValue)
-                .getReturnValue().get();
-            return ResponseEntity.status(HttpStatus.CREATED)
-                .body("Transaction id ${signedTx.id} committed to ledger.\n");
+            FlowProgressHandle<SignedTransaction> handle = proxy.startTrackedFlowDynamic(IOUFlow.Initiator.class, otherParty, iouValue);
+            CompletableFuture<SignedTransaction> result = flowRegistry.register(IOUFlow.Initiator.class, handle);
+            return FlowResponses.respond(request, handle.getId(), result, HttpStatus.CREATED, logger);
         } catch (Throwable ex) {
-            logger.error(ex.getMessage(), ex);
-            assert ex.getMessage() != null;
-            return ResponseEntity.badRequest().body(ex.getMessage());
+            return FlowResponses.failed(ex, logger);
         }
     }
 
@@ -91,9 +109,8 @@ public class IouController {
     @GetMapping(value = "my", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<StateAndRef<IOUState>>> getMyIOUs() {
         List<StateAndRef<IOUState>> myIous = proxy.vaultQuery(IOUState.class).getStates().stream()
-            .filter(it -> {
-                return it.getState().getData().getLender().equals(proxy.nodeInfo().getLegalIdentities().get(0));
-            }).collect(Collectors.toList());
+            .filter(it -> it.getState().getData().getLender().equals(me))
+            .collect(Collectors.toList());
         return ResponseEntity.ok(myIous);
     }
 }
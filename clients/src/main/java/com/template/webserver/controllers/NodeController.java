@@ -1,14 +1,12 @@
 package com.template.webserver.controllers;
 
 import com.google.common.collect.ImmutableMap;
-import com.template.webserver.NodeRPCConnection;
+import com.template.webserver.network.NetworkMapView;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import net.corda.core.identity.CordaX500Name;
-import net.corda.core.messaging.CordaRPCOps;
-import net.corda.core.node.NodeInfo;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,13 +19,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/node")
 public class NodeController {
 
-    private final CordaRPCOps proxy;
+    private final NetworkMapView networkMap;
     private final CordaX500Name myLegalName;
     private final List<String> SERVICE_NAMES = Arrays.asList("Notary", "Network Map Service");
 
-    public NodeController(NodeRPCConnection rpc) {
-        this.proxy = rpc.getProxy();
-        this.myLegalName = proxy.nodeInfo().getLegalIdentities().get(0).getName();
+    public NodeController(NetworkMapView networkMap) {
+        this.networkMap = networkMap;
+        this.myLegalName = networkMap.getMyIdentity().getName();
     }
 
     /**
@@ -40,11 +38,11 @@ public class NodeController {
 
     /**
      * Returns all parties registered with the network map service. These names can be used to look up identities using the identity service.
+     * Served from local copy of network map.
      */
     @GetMapping(value = "peers", produces = MediaType.APPLICATION_JSON_VALUE)
     public Map<String, List<CordaX500Name>> getPeers() {
-        List<NodeInfo> nodesInfo = proxy.networkMapSnapshot();
-        return ImmutableMap.of("peers", nodesInfo.stream().map(nodeInfo -> {
+        return ImmutableMap.of("peers", networkMap.getNodes().stream().map(nodeInfo -> {
             return nodeInfo.getLegalIdentities().get(0).getName();
         }).filter(o -> {
             return !SERVICE_NAMES.contains(o.getOrganisation())
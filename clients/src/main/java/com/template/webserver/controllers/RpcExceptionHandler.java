@@ -0,0 +1,28 @@
+package com.template.webserver.controllers;
+
+import com.template.webserver.rpc.RpcUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Node is unreachable (e.g. restarts): ask clients to retry instead of answering with 500
+ */
+@RestControllerAdvice
+public class RpcExceptionHandler {
+
+    static final String RETRY_AFTER_SECONDS = "5";
+
+    @ExceptionHandler(RpcUnavailableException.class)
+    public ResponseEntity<String> handle(RpcUnavailableException ex) {
+        return serviceUnavailable(ex);
+    }
+
+    static ResponseEntity<String> serviceUnavailable(RpcUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+            .body(ex.getMessage() + "\n");
+    }
+}
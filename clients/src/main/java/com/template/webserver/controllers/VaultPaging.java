@@ -0,0 +1,97 @@
+package com.template.webserver.controllers;
+
+import com.google.common.collect.ImmutableList;
+import com.template.webserver.dto.PageDto;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import net.corda.core.contracts.ContractState;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.identity.CordaX500Name;
+import net.corda.core.node.services.Vault;
+import net.corda.core.node.services.vault.Builder;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.node.services.vault.QueryCriteria;
+import net.corda.core.node.services.vault.Sort;
+import net.corda.core.node.services.vault.SortAttribute;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Common parts of paged listings: page validation, stable ordering and mapping to DTO page
+ */
+final class VaultPaging {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Newest states first; state ref makes order stable for states recorded by the same transaction
+     */
+    static final Sort NEWEST_FIRST = new Sort(ImmutableList.of(
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.VaultStateAttribute.RECORDED_TIME), Sort.Direction.DESC),
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.CommonStateAttribute.STATE_REF_TXN_ID), Sort.Direction.ASC),
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.CommonStateAttribute.STATE_REF_INDEX), Sort.Direction.ASC)
+    ));
+
+    private VaultPaging() {
+    }
+
+    static PageSpecification pageSpecification(int page, int size) {
+        if (page < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query parameter 'page' must be positive.");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Query parameter 'size' must be in range 1.." + MAX_PAGE_SIZE + ".");
+        }
+        return new PageSpecification(page, size);
+    }
+
+    /**
+     * Unconsumed states, optionally recorded after given time. States which evolve (like games) are recorded on
+     * each change, so for them it is time of the last change, not of creation
+     */
+    static QueryCriteria unconsumed(Instant recordedAfter) {
+        QueryCriteria.TimeCondition timeCondition = recordedAfter == null ? null : new QueryCriteria.TimeCondition(
+            QueryCriteria.TimeInstantType.RECORDED, Builder.greaterThanOrEqual(recordedAfter));
+        return new QueryCriteria.VaultQueryCriteria(Vault.StateStatus.UNCONSUMED, null, null, null, null, timeCondition);
+    }
+
+    /**
+     * @return X500 name in the same form as it is stored in vault schemas
+     */
+    static String partyName(String parameterName, String value) {
+        try {
+            return CordaX500Name.parse(value).toString();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Query parameter '" + parameterName + "' is not valid X500 name: " + e.getMessage());
+        }
+    }
+
+    static <S extends ContractState, D> PageDto<D> toPageDto(Vault.Page<S> page, PageSpecification pageSpec,
+        BiFunction<StateAndRef<S>, Vault.StateMetadata, D> mapper) {
+        List<StateAndRef<S>> states = page.getStates();
+        List<Vault.StateMetadata> metadata = page.getStatesMetadata();
+        List<D> items = new ArrayList<>(states.size());
+        for (int i = 0; i < states.size(); i++) {
+            items.add(mapper.apply(states.get(i), i < metadata.size() ? metadata.get(i) : null));
+        }
+        return new PageDto<>(items, pageSpec.getPageNumber(), pageSpec.getPageSize(), page.getTotalStatesAvailable());
+    }
+
+    /**
+     * Cuts requested page from already filtered and sorted in-memory list
+     */
+    static <T, D> PageDto<D> toPageDto(List<T> all, PageSpecification pageSpec, Function<T, D> mapper) {
+        int from = (int) Math.min((long) (pageSpec.getPageNumber() - 1) * pageSpec.getPageSize(), all.size());
+        int to = Math.min(from + pageSpec.getPageSize(), all.size());
+        List<D> items = new ArrayList<>(to - from);
+        for (T item : all.subList(from, to)) {
+            items.add(mapper.apply(item));
+        }
+        return new PageDto<>(items, pageSpec.getPageNumber(), pageSpec.getPageSize(), all.size());
+    }
+}
@@ -1,16 +1,31 @@
 package com.template.webserver.controllers;
 
+import static net.corda.core.node.services.vault.QueryCriteriaUtils.DEFAULT_PAGE_NUM;
+
 import com.template.flows.xogame.MakeStepFlow;
 import com.template.flows.xogame.StartGameFlow;
+import com.template.schema.XoGameCriteria;
 import com.template.states.XoGameState;
 import com.template.webserver.NodeRPCConnection;
+import com.template.webserver.dto.PageDto;
+import com.template.webserver.dto.XoGameDto;
+import com.template.webserver.events.XoGameEvents;
+import com.template.webserver.flows.FlowRegistry;
+import com.template.webserver.index.IndexedGame;
+import com.template.webserver.index.XoGameIndex;
+import com.template.webserver.network.NetworkMapView;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import javax.servlet.http.HttpServletRequest;
 import net.corda.core.contracts.StateAndRef;
 import net.corda.core.identity.CordaX500Name;
 import net.corda.core.identity.Party;
 import net.corda.core.messaging.CordaRPCOps;
+import net.corda.core.messaging.FlowProgressHandle;
+import net.corda.core.node.services.Vault;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.node.services.vault.QueryCriteria;
 import net.corda.core.transactions.SignedTransaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,7 +37,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Define your API endpoints here. Current set of actions taken from https://docs.corda.net/tutorial-cordapp.html
@@ -31,63 +48,135 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/xo")
 public class XoController {
 
+    /**
+     * Status of in-memory index: LIVE when response is built from up-to-date index, otherwise response is built from
+     * vault query
+     */
+    static final String INDEX_STATUS_HEADER = "X-Index-Status";
+    /**
+     * Time of last vault update applied to index
+     */
+    static final String INDEX_LAST_UPDATE_HEADER = "X-Index-Last-Update";
+
     private final CordaRPCOps proxy;
+    private final XoGameIndex index;
+    private final XoGameEvents events;
+    private final FlowRegistry flowRegistry;
+    private final NetworkMapView networkMap;
     private final CordaX500Name myLegalName;
     private final static Logger logger = LoggerFactory.getLogger(XoController.class);
 
-    public XoController(NodeRPCConnection rpc) {
+    public XoController(NodeRPCConnection rpc, XoGameIndex index, XoGameEvents events, FlowRegistry flowRegistry,
+        NetworkMapView networkMap) {
         this.proxy = rpc.getProxy();
-        this.myLegalName = proxy.nodeInfo().getLegalIdentities().get(0).getName();
+        this.index = index;
+        this.events = events;
+        this.flowRegistry = flowRegistry;
+        this.networkMap = networkMap;
+        this.myLegalName = networkMap.getMyIdentity().getName();
     }
 
     /**
-     * Displays all games that exist in the node's vault.
+     * Displays one page of games that exist in the node's vault, newest first. All filters are optional:
+     * player or next turn owner (X500 names), finished flag and lower bound of time of the last move (recording time of current game state).
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<StateAndRef<XoGameState>>> getAllGames() {
-        return ResponseEntity.ok(proxy.vaultQuery(XoGameState.class).getStates());
+    public ResponseEntity<PageDto<XoGameDto>> getAllGames(
+        @RequestParam(value = "page", defaultValue = "1") int page,
+        @RequestParam(value = "size", defaultValue = "50") int size,
+        @RequestParam(value = "player", required = false) String player,
+        @RequestParam(value = "nextTurnOwner", required = false) String nextTurnOwner,
+        @RequestParam(value = "finished", required = false) Boolean finished,
+        @RequestParam(value = "updatedAfter", required = false) Instant updatedAfter) {
+        PageSpecification pageSpec = VaultPaging.pageSpecification(page, size);
+        String playerName = player != null ? VaultPaging.partyName("player", player) : null;
+        String nextTurnOwnerName = nextTurnOwner != null ? VaultPaging.partyName("nextTurnOwner", nextTurnOwner) : null;
+        if (index.isLive()) {
+            List<IndexedGame> games = index.find(playerName, nextTurnOwnerName, finished, updatedAfter);
+            return withIndexHeaders(HttpStatus.OK).body(VaultPaging.toPageDto(games, pageSpec,
+                game -> new XoGameDto(game.getStateAndRef(), game.getRecordedTime())));
+        }
+
+        QueryCriteria criteria = VaultPaging.unconsumed(updatedAfter);
+        if (playerName != null) {
+            criteria = criteria.and(XoGameCriteria.byPlayer(playerName));
+        }
+        if (nextTurnOwnerName != null) {
+            criteria = criteria.and(XoGameCriteria.byNextTurnOwner(nextTurnOwnerName));
+        }
+        if (finished != null) {
+            criteria = criteria.and(XoGameCriteria.byFinished(finished));
+        }
+        Vault.Page<XoGameState> games = proxy.vaultQueryBy(criteria, pageSpec, VaultPaging.NEWEST_FIRST, XoGameState.class);
+        return withIndexHeaders(HttpStatus.OK).body(VaultPaging.toPageDto(games, pageSpec, XoGameDto::new));
     }
 
     /**
-     * Get game by id
+     * Get game by id. It is taken from in-memory index when index is live, otherwise lookup goes by indexed
+     * game_id column and fetches one state only
      */
     @GetMapping(value = "{gameId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<StateAndRef<XoGameState>> getGameById(@PathVariable("gameId") String gameId) {
-        StateAndRef<XoGameState> myGame = proxy.vaultQuery(XoGameState.class).getStates().stream()
-            .filter(it -> {
-                return it.getState().getData().getGameId().equals(gameId);
-            }).collect(Collectors.toList()).get(0);
-        return ResponseEntity.ok(myGame);
+        if (index.isLive()) {
+            IndexedGame game = index.get(gameId);
+            if (game == null) {
+                return withIndexHeaders(HttpStatus.NOT_FOUND).build();
+            }
+            return withIndexHeaders(HttpStatus.OK).body(game.getStateAndRef());
+        }
+
+        List<StateAndRef<XoGameState>> games = proxy.vaultQueryByWithPagingSpec(XoGameState.class,
+            XoGameCriteria.byGameId(gameId), new PageSpecification(DEFAULT_PAGE_NUM, 1)).getStates();
+        if (games.isEmpty()) {
+            return withIndexHeaders(HttpStatus.NOT_FOUND).build();
+        }
+        return withIndexHeaders(HttpStatus.OK).body(games.get(0));
+    }
+
+    /**
+     * Server-Sent Events stream of game states: current state first and then each new state as soon as it is
+     * recorded in vault, so clients don't need to poll the game
+     */
+    @GetMapping(value = "{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getGameEvents(@PathVariable("gameId") String gameId) {
+        return events.subscribe(gameId);
+    }
+
+    private ResponseEntity.BodyBuilder withIndexHeaders(HttpStatus status) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+            .header(INDEX_STATUS_HEADER, index.getStatus().name());
+        Instant lastUpdate = index.getLastUpdate();
+        if (lastUpdate != null) {
+            builder.header(INDEX_LAST_UPDATE_HEADER, lastUpdate.toString());
+        }
+        return builder;
     }
 
     /**
      * Creates the game by gameId and opponent.
      */
     @PostMapping(produces = MediaType.TEXT_PLAIN_VALUE, headers = "Content-Type=application/x-www-form-urlencoded")
-    public ResponseEntity<String> startGame(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<String>> startGame(HttpServletRequest request) {
         String gameId = request.getParameter("gameId");
         String partyName = request.getParameter("opponent");
         if (gameId == null) {
-            return ResponseEntity.badRequest().body("Query parameter 'gameId' must not be null.\n");
+            return FlowResponses.badRequest("Query parameter 'gameId' must not be null.\n");
         }
         if (partyName == null) {
-            return ResponseEntity.badRequest().body("Query parameter 'opponent' must not be null.\n");
+            return FlowResponses.badRequest("Query parameter 'opponent' must not be null.\n");
         }
         CordaX500Name partyX500Name = CordaX500Name.parse(partyName);
-        Party opponent = proxy.wellKnownPartyFromX500Name(partyX500Name);
+        Party opponent = networkMap.wellKnownParty(partyX500Name);
         if (opponent == null) {
-            return ResponseEntity.badRequest().body("Party named $opponent cannot be found.\n");
+            return FlowResponses.badRequest("Party named " + partyName + " cannot be found.\n");
         }
 
         try {
-            SignedTransaction signedTx = proxy.startTrackedFlowDynamic(StartGameFlow.Initiator.class, gameId, opponent)
-                .getReturnValue().get();
-            return ResponseEntity.status(HttpStatus.CREATED)
-                .body("Transaction id ${signedTx.id} committed to ledger.\n");
+            FlowProgressHandle<SignedTransaction> handle = proxy.startTrackedFlowDynamic(StartGameFlow.Initiator.class, gameId, opponent);
+            CompletableFuture<SignedTransaction> result = flowRegistry.register(StartGameFlow.Initiator.class, handle);
+            return FlowResponses.respond(request, handle.getId(), result, HttpStatus.CREATED, logger);
         } catch (Throwable ex) {
-            logger.error(ex.getMessage(), ex);
-            assert ex.getMessage() != null;
-            return ResponseEntity.badRequest().body(ex.getMessage());
+            return FlowResponses.failed(ex, logger);
         }
     }
 
@@ -95,34 +184,31 @@ public class XoController {
      * Makes game step
      */
     @PutMapping(produces = MediaType.TEXT_PLAIN_VALUE, headers = "Content-Type=application/x-www-form-urlencoded")
-    public ResponseEntity<String> makeStep(HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<String>> makeStep(HttpServletRequest request) {
         String gameId = request.getParameter("gameId");
         String partyName = request.getParameter("opponent");
         String newField = request.getParameter("newField");
         if (gameId == null) {
-            return ResponseEntity.badRequest().body("Query parameter 'gameId' must not be null.\n");
+            return FlowResponses.badRequest("Query parameter 'gameId' must not be null.\n");
         }
         if (partyName == null) {
-            return ResponseEntity.badRequest().body("Query parameter 'opponent' must not be null.\n");
+            return FlowResponses.badRequest("Query parameter 'opponent' must not be null.\n");
         }
         if (newField == null) {
-            return ResponseEntity.badRequest().body("Query parameter 'newField' must not be null.\n");
+            return FlowResponses.badRequest("Query parameter 'newField' must not be null.\n");
         }
         CordaX500Name partyX500Name = CordaX500Name.parse(partyName);
-        Party opponent = proxy.wellKnownPartyFromX500Name(partyX500Name);
+        Party opponent = networkMap.wellKnownParty(partyX500Name);
         if (opponent == null) {
-            return ResponseEntity.badRequest().body("Party named $opponent cannot be found.\n");
+            return FlowResponses.badRequest("Party named " + partyName + " cannot be found.\n");
         }
 
         try {
-            SignedTransaction signedTx = proxy.startTrackedFlowDynamic(MakeStepFlow.Initiator.class, gameId, opponent, newField)
-                .getReturnValue().get();
-            return ResponseEntity.status(HttpStatus.OK)
-                .body("Transaction id ${signedTx.id} committed to ledger.\n");
+            FlowProgressHandle<SignedTransaction> handle = proxy.startTrackedFlowDynamic(MakeStepFlow.Initiator.class, gameId, opponent, newField);
+            CompletableFuture<SignedTransaction> result = flowRegistry.register(MakeStepFlow.Initiator.class, handle);
+            return FlowResponses.respond(request, handle.getId(), result, HttpStatus.OK, logger);
         } catch (Throwable ex) {
-            logger.error(ex.getMessage(), ex);
-            assert ex.getMessage() != null;
-            return ResponseEntity.badRequest().body(ex.getMessage());
+            return FlowResponses.failed(ex, logger);
         }
     }
 }
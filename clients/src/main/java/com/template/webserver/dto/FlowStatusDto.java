@@ -0,0 +1,76 @@
+package com.template.webserver.dto;
+
+import java.time.Instant;
+
+/**
+ * State of flow started by this web server
+ */
+public class FlowStatusDto {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED,
+        /**
+         * RPC connection was lost before flow reported its result, flow could still complete on node
+         */
+        UNKNOWN
+    }
+
+    private final String id;
+    private final String flow;
+    private final Status status;
+    private final String step;
+    private final String transactionId;
+    private final String error;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+
+    public FlowStatusDto(String id, String flow, Status status, String step, String transactionId, String error,
+        Instant startedAt, Instant finishedAt) {
+        this.id = id;
+        this.flow = flow;
+        this.status = status;
+        this.step = step;
+        this.transactionId = transactionId;
+        this.error = error;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFlow() {
+        return flow;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Last progress tracker step reported by flow
+     */
+    public String getStep() {
+        return step;
+    }
+
+    /**
+     * Id of transaction committed by completed flow
+     */
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,47 @@
+package com.template.webserver.dto;
+
+import com.template.states.IOUState;
+import java.time.Instant;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.node.services.Vault;
+
+/**
+ * IOU state without transaction envelope (notary, contract, constraint etc.)
+ */
+public class IouDto {
+
+    private final int value;
+    private final String lender;
+    private final String borrower;
+    private final String stateRef;
+    private final Instant recordedTime;
+
+    public IouDto(StateAndRef<IOUState> stateAndRef, Vault.StateMetadata metadata) {
+        IOUState state = stateAndRef.getState().getData();
+        this.value = state.getValue();
+        this.lender = state.getLender().getName().toString();
+        this.borrower = state.getBorrower().getName().toString();
+        this.stateRef = stateAndRef.getRef().toString();
+        this.recordedTime = metadata != null ? metadata.getRecordedTime() : null;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public String getLender() {
+        return lender;
+    }
+
+    public String getBorrower() {
+        return borrower;
+    }
+
+    public String getStateRef() {
+        return stateRef;
+    }
+
+    public Instant getRecordedTime() {
+        return recordedTime;
+    }
+}
@@ -0,0 +1,47 @@
+package com.template.webserver.dto;
+
+import java.util.List;
+
+/**
+ * One page of vault query results
+ */
+public class PageDto<T> {
+
+    private final List<T> items;
+    private final int page;
+    private final int size;
+    private final long total;
+
+    public PageDto(List<T> items, int page, int size, long total) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Page number, starting from 1
+     */
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Number of states matching query criteria on all pages
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isLast() {
+        return (long) page * size >= total;
+    }
+}
@@ -0,0 +1,75 @@
+package com.template.webserver.dto;
+
+import com.template.states.XoGameState;
+import java.time.Instant;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.node.services.Vault;
+
+/**
+ * Game state without transaction envelope (notary, contract, constraint etc.)
+ */
+public class XoGameDto {
+
+    private final String gameId;
+    private final String player1;
+    private final String player2;
+    private final String nextTurnOwner;
+    private final String gameField;
+    private final boolean finished;
+    private final String winner;
+    private final String stateRef;
+    private final Instant recordedTime;
+
+    public XoGameDto(StateAndRef<XoGameState> stateAndRef, Vault.StateMetadata metadata) {
+        this(stateAndRef, metadata != null ? metadata.getRecordedTime() : null);
+    }
+
+    public XoGameDto(StateAndRef<XoGameState> stateAndRef, Instant recordedTime) {
+        XoGameState state = stateAndRef.getState().getData();
+        this.gameId = state.getGameId();
+        this.player1 = state.getPlayer1().getName().toString();
+        this.player2 = state.getPlayer2().getName().toString();
+        this.nextTurnOwner = state.getNextTurnOwner().getName().toString();
+        this.gameField = state.getGameField().toString();
+        this.finished = state.getGameField().isGameOver();
+        this.winner = state.getGameField().determineWinner().name();
+        this.stateRef = stateAndRef.getRef().toString();
+        this.recordedTime = recordedTime;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public String getPlayer1() {
+        return player1;
+    }
+
+    public String getPlayer2() {
+        return player2;
+    }
+
+    public String getNextTurnOwner() {
+        return nextTurnOwner;
+    }
+
+    public String getGameField() {
+        return gameField;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public String getStateRef() {
+        return stateRef;
+    }
+
+    public Instant getRecordedTime() {
+        return recordedTime;
+    }
+}
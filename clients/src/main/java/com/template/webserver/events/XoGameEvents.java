@@ -0,0 +1,191 @@
+package com.template.webserver.events;
+
+import com.template.webserver.dto.XoGameDto;
+import com.template.webserver.index.IndexedGame;
+import com.template.webserver.index.XoGameIndex;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes new states of games to Server-Sent Events subscribers. All subscribers share the single vault updates
+ * feed of {@link XoGameIndex}; events are written on own thread pool, so slow HTTP clients don't hold index updates.
+ * <p>
+ * Each subscriber has its own queue which is drained by one pool task at a time, so its events are written in
+ * order: current state first, then newer states. The queue is bounded by {@code config.events.backlog}; subscriber
+ * which doesn't keep up is dropped and could subscribe again to get current state.
+ */
+@Component
+public class XoGameEvents implements XoGameIndex.Listener {
+
+    static final String MOVE_EVENT = "move";
+
+    private static final Logger logger = LoggerFactory.getLogger(XoGameEvents.class);
+
+    private final XoGameIndex index;
+    private final long timeoutMillis;
+    private final int backlog;
+    private final ExecutorService sender;
+    private final Map<String, Set<Subscriber>> subscribersByGameId = new ConcurrentHashMap<>();
+
+    public XoGameEvents(XoGameIndex index,
+        @Value("${config.events.timeout-ms:1800000}") long timeoutMillis,
+        @Value("${config.events.sender-threads:4}") int senderThreads,
+        @Value("${config.events.backlog:32}") int backlog) {
+        this.index = index;
+        this.timeoutMillis = timeoutMillis;
+        this.backlog = backlog;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "xo-game-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        index.addListener(this);
+    }
+
+    @PreDestroy
+    public void close() {
+        index.removeListener(this);
+        sender.shutdownNow();
+        subscribersByGameId.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * Opens stream of given game states. Current state (when it is known) is sent right away, so client doesn't
+     * need separate request to get it
+     */
+    public SseEmitter subscribe(String gameId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(gameId, emitter);
+        Runnable unsubscribe = () -> unsubscribe(subscriber);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        // Updates wait for subscriber lock, so current state is queued before any of them
+        synchronized (subscriber) {
+            subscribersByGameId.computeIfAbsent(gameId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            IndexedGame current = index.get(gameId);
+            if (current != null) {
+                subscriber.enqueue(current);
+            }
+        }
+        return emitter;
+    }
+
+    public int getSubscribersCount() {
+        return subscribersByGameId.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void gameUpdated(IndexedGame game) {
+        Set<Subscriber> subscribers = subscribersByGameId.get(game.getState().getGameId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(game);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByGameId.computeIfPresent(subscriber.gameId, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private class Subscriber {
+
+        private final String gameId;
+        private final SseEmitter emitter;
+        // guarded by this
+        private final Queue<IndexedGame> queue = new ArrayDeque<>();
+        private long lastSequence = -1;
+        private boolean draining;
+        private boolean dropped;
+
+        private Subscriber(String gameId, SseEmitter emitter) {
+            this.gameId = gameId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queues state unless it is already queued (the same state could come both as current one and as update)
+         */
+        private synchronized void enqueue(IndexedGame game) {
+            if (dropped || game.getSequence() <= lastSequence) {
+                return;
+            }
+            if (queue.size() >= backlog) {
+                drop(new IllegalStateException("Subscriber of game " + gameId + " has more than " + backlog + " unsent events"));
+                return;
+            }
+            lastSequence = game.getSequence();
+            queue.add(game);
+            if (!draining) {
+                draining = true;
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Game events are closed, event of game {} isn't sent", gameId);
+                }
+            }
+        }
+
+        private synchronized IndexedGame next() {
+            IndexedGame game = queue.poll();
+            if (game == null) {
+                draining = false;
+            }
+            return game;
+        }
+
+        private void drain() {
+            IndexedGame game;
+            while ((game = next()) != null) {
+                try {
+                    emitter.send(SseEmitter.event()
+                        .id(game.getStateAndRef().getRef().toString())
+                        .name(MOVE_EVENT)
+                        .data(new XoGameDto(game.getStateAndRef(), game.getRecordedTime())));
+                } catch (IOException | IllegalStateException e) {
+                    drop(e);
+                    return;
+                }
+            }
+        }
+
+        private void drop(Exception error) {
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                dropped = true;
+                queue.clear();
+            }
+            logger.debug("Failed to send event of game {}, subscriber is dropped", gameId, error);
+            unsubscribe(this);
+            emitter.completeWithError(error);
+        }
+    }
+}
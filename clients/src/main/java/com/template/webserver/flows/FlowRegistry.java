@@ -0,0 +1,127 @@
+package com.template.webserver.flows;
+
+import com.template.webserver.dto.FlowStatusDto;
+import com.template.webserver.dto.FlowStatusDto.Status;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import net.corda.client.rpc.RPCException;
+import net.corda.core.messaging.FlowProgressHandle;
+import net.corda.core.transactions.SignedTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps track of flows started through this web server: follows their progress and result by RPC callbacks
+ * instead of blocking HTTP threads. Finished flows are kept for {@code config.flows.retention-ms} so clients
+ * could read their status.
+ */
+@Component
+public class FlowRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlowRegistry.class);
+
+    private final Duration retention;
+    private final Map<UUID, TrackedFlow> flows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flow-registry-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FlowRegistry(@Value("${config.flows.retention-ms:600000}") long retentionMillis) {
+        this.retention = Duration.ofMillis(retentionMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        cleaner.scheduleWithFixedDelay(this::evictFinished, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void close() {
+        cleaner.shutdownNow();
+    }
+
+    /**
+     * Starts tracking of just started flow
+     *
+     * @return future of flow result, completed on RPC thread
+     */
+    public CompletableFuture<SignedTransaction> register(Class<?> flowClass, FlowProgressHandle<SignedTransaction> handle) {
+        UUID id = handle.getId().getUuid();
+        TrackedFlow flow = new TrackedFlow(id.toString(), flowClass.getSimpleName());
+        flows.put(id, flow);
+        handle.getProgress().subscribe(flow::stepChanged, error -> logger.debug("Progress of flow {} failed", id, error));
+        return handle.getReturnValue().toCompletableFuture().whenComplete((tx, error) -> {
+            flow.finished(tx, error);
+            handle.close();
+        });
+    }
+
+    /**
+     * @return status of flow or null when flow wasn't started by this web server or finished long ago
+     */
+    public FlowStatusDto getStatus(UUID id) {
+        TrackedFlow flow = flows.get(id);
+        return flow != null ? flow.toDto() : null;
+    }
+
+    private void evictFinished() {
+        Instant threshold = Instant.now().minus(retention);
+        flows.values().removeIf(flow -> flow.isFinishedBefore(threshold));
+    }
+
+    private static class TrackedFlow {
+
+        private final String id;
+        private final String flowName;
+        private final Instant startedAt = Instant.now();
+        private Status status = Status.RUNNING;
+        private String step;
+        private String transactionId;
+        private String error;
+        private Instant finishedAt;
+
+        private TrackedFlow(String id, String flowName) {
+            this.id = id;
+            this.flowName = flowName;
+        }
+
+        private synchronized void stepChanged(String step) {
+            this.step = step;
+        }
+
+        private synchronized void finished(SignedTransaction tx, Throwable error) {
+            finishedAt = Instant.now();
+            if (error == null) {
+                status = Status.COMPLETED;
+                transactionId = tx.getId().toString();
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                status = cause instanceof RPCException ? Status.UNKNOWN : Status.FAILED;
+                this.error = cause.getMessage();
+            }
+        }
+
+        private synchronized boolean isFinishedBefore(Instant threshold) {
+            return finishedAt != null && finishedAt.isBefore(threshold);
+        }
+
+        private synchronized FlowStatusDto toDto() {
+            return new FlowStatusDto(id, flowName, status, step, transactionId, error, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.template.webserver.index;
+
+import com.template.states.XoGameState;
+import java.time.Instant;
+import net.corda.core.contracts.StateAndRef;
+
+/**
+ * Unconsumed game state held by {@link XoGameIndex}
+ */
+public class IndexedGame {
+
+    private final StateAndRef<XoGameState> stateAndRef;
+    private final Instant recordedTime;
+    private final long sequence;
+
+    IndexedGame(StateAndRef<XoGameState> stateAndRef, Instant recordedTime, long sequence) {
+        this.stateAndRef = stateAndRef;
+        this.recordedTime = recordedTime;
+        this.sequence = sequence;
+    }
+
+    public StateAndRef<XoGameState> getStateAndRef() {
+        return stateAndRef;
+    }
+
+    public XoGameState getState() {
+        return stateAndRef.getState().getData();
+    }
+
+    /**
+     * Recording time of the state in vault, the same for seeded states and states came by updates
+     */
+    public Instant getRecordedTime() {
+        return recordedTime;
+    }
+
+    /**
+     * Order in which states were added to index, newer states have bigger numbers
+     */
+    public long getSequence() {
+        return sequence;
+    }
+}
@@ -0,0 +1,402 @@
+package com.template.webserver.index;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.template.states.XoGameState;
+import com.template.webserver.NodeRPCConnection;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.contracts.StateRef;
+import net.corda.core.messaging.CordaRPCOps;
+import net.corda.core.messaging.DataFeed;
+import net.corda.core.node.services.Vault;
+import net.corda.core.node.services.vault.Builder;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.node.services.vault.QueryCriteria;
+import net.corda.core.node.services.vault.Sort;
+import net.corda.core.node.services.vault.SortAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rx.Subscription;
+
+/**
+ * Local copy of unconsumed games of the node, indexed by game id and by player name, so reads don't go to node.
+ * <p>
+ * Index subscribes to vault updates by vaultTrackBy() and seeds itself from its snapshot and following pages
+ * (page boundary is moved by recording time, so states consumed in the meantime don't shift unread states to
+ * already read pages). Updates received during seeding are applied immediately, states consumed by them are
+ * remembered and skipped if they still come in later pages.
+ * <p>
+ * Updates are applied in order on separate thread: recording time of produced states isn't part of vault update,
+ * so it is queried from vault, the same as for seeded states.
+ * <p>
+ * When updates feed or seeding fails, index is dropped and seeded again in background with growing delay.
+ * <p>
+ * Reads are lock-free; {@link #getStatus()} and {@link #getLastUpdate()} tell how fresh the data is.
+ */
+@Component
+public class XoGameIndex implements AutoCloseable {
+
+    /**
+     * Receives game states produced by vault updates. Called on index updater thread, so it shouldn't block
+     */
+    public interface Listener {
+
+        void gameUpdated(IndexedGame game);
+    }
+
+    public enum Status {
+        /**
+         * Index is being filled from vault, it is incomplete
+         */
+        SEEDING,
+        /**
+         * Index is complete and follows vault updates
+         */
+        LIVE,
+        /**
+         * Updates feed failed (e.g. node restarts), index content could be stale until it is seeded again
+         */
+        FAILED
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(XoGameIndex.class);
+
+    private static final long INITIAL_RESEED_DELAY_MILLIS = 1000;
+    private static final long MAX_RESEED_DELAY_MILLIS = 60_000;
+
+    private static final Sort OLDEST_FIRST = new Sort(ImmutableList.of(
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.VaultStateAttribute.RECORDED_TIME), Sort.Direction.ASC),
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.CommonStateAttribute.STATE_REF_TXN_ID), Sort.Direction.ASC),
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.CommonStateAttribute.STATE_REF_INDEX), Sort.Direction.ASC)
+    ));
+
+    /**
+     * Same order as vault-backed listing: newest states first, state ref makes order stable for states recorded
+     * by the same transaction
+     */
+    private static final Comparator<IndexedGame> NEWEST_FIRST = Comparator
+        .comparing(IndexedGame::getRecordedTime, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+        .thenComparing(game -> game.getStateAndRef().getRef().getTxhash().toString())
+        .thenComparingInt(game -> game.getStateAndRef().getRef().getIndex());
+
+    private final NodeRPCConnection rpc;
+    private final int pageSize;
+
+    private final Map<String, IndexedGame> byGameId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> gameIdsByPlayer = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService seeder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "xo-game-index-seeder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "xo-game-index-updater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // guarded by this
+    private final Set<StateRef> consumedWhileSeeding = new HashSet<>();
+    private Subscription subscription;
+    private long generation;
+    private boolean reseedScheduled;
+    private long reseedDelayMillis = INITIAL_RESEED_DELAY_MILLIS;
+
+    private volatile Status status = Status.SEEDING;
+    private volatile Instant lastUpdate;
+
+    public XoGameIndex(NodeRPCConnection rpc, @Value("${config.index.page-size:1000}") int pageSize) {
+        this.rpc = rpc;
+        this.pageSize = pageSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        seeder.submit(this::seed);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        seeder.shutdownNow();
+        updater.shutdownNow();
+        if (subscription != null) {
+            subscription.unsubscribe();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isLive() {
+        return status == Status.LIVE;
+    }
+
+    /**
+     * Time of last applied update or of seeding completion
+     */
+    public Instant getLastUpdate() {
+        return lastUpdate;
+    }
+
+    public int size() {
+        return byGameId.size();
+    }
+
+    /**
+     * @return unconsumed state of given game or null when game is unknown
+     */
+    public IndexedGame get(String gameId) {
+        return byGameId.get(gameId);
+    }
+
+    /**
+     * Games matching all given (nullable) filters, newest first
+     *
+     * @param player X500 name of one of players
+     * @param nextTurnOwner X500 name of next turn owner
+     * @param updatedAfter lower bound of recording time of current game state, i.e. of the last move
+     */
+    public List<IndexedGame> find(String player, String nextTurnOwner, Boolean finished, Instant updatedAfter) {
+        Stream<IndexedGame> games;
+        if (player != null) {
+            Set<String> gameIds = gameIdsByPlayer.get(player);
+            if (gameIds == null) {
+                return ImmutableList.of();
+            }
+            games = gameIds.stream().map(byGameId::get).filter(game -> game != null);
+        } else {
+            games = byGameId.values().stream();
+        }
+        if (nextTurnOwner != null) {
+            games = games.filter(game -> game.getState().getNextTurnOwner().getName().toString().equals(nextTurnOwner));
+        }
+        if (finished != null) {
+            games = games.filter(game -> game.getState().getGameField().isGameOver() == finished);
+        }
+        if (updatedAfter != null) {
+            games = games.filter(game -> game.getRecordedTime() != null && !game.getRecordedTime().isBefore(updatedAfter));
+        }
+        return games.sorted(NEWEST_FIRST).collect(Collectors.toList());
+    }
+
+    private void seed() {
+        long seedGeneration;
+        synchronized (this) {
+            seedGeneration = ++generation;
+            reseedScheduled = false;
+            status = Status.SEEDING;
+            byGameId.clear();
+            gameIdsByPlayer.clear();
+            consumedWhileSeeding.clear();
+        }
+        try {
+            CordaRPCOps proxy = rpc.getProxy();
+            DataFeed<Vault.Page<XoGameState>, Vault.Update<XoGameState>> feed = proxy.vaultTrackBy(
+                unconsumedRecordedFrom(null), new PageSpecification(1, pageSize), OLDEST_FIRST, XoGameState.class);
+            synchronized (this) {
+                subscription = feed.getUpdates().subscribe(update -> updater.execute(() -> apply(update, seedGeneration)),
+                    this::failed);
+            }
+
+            Vault.Page<XoGameState> page = feed.getSnapshot();
+            Instant bound = null;
+            int pageNumber = 1;
+            while (true) {
+                addAll(page);
+                if (page.getStates().size() < pageSize) {
+                    break;
+                }
+                List<Vault.StateMetadata> metadata = page.getStatesMetadata();
+                Instant lastRecorded = metadata.get(metadata.size() - 1).getRecordedTime();
+                if (lastRecorded.equals(bound)) {
+                    // Whole page is recorded at the same time, so the bound can't move
+                    pageNumber++;
+                } else {
+                    bound = lastRecorded;
+                    pageNumber = 1;
+                }
+                page = proxy.vaultQueryBy(unconsumedRecordedFrom(bound), new PageSpecification(pageNumber, pageSize),
+                    OLDEST_FIRST, XoGameState.class);
+            }
+
+            synchronized (this) {
+                consumedWhileSeeding.clear();
+                if (status == Status.SEEDING) {
+                    status = Status.LIVE;
+                    lastUpdate = Instant.now();
+                    reseedDelayMillis = INITIAL_RESEED_DELAY_MILLIS;
+                }
+            }
+            logger.info("Games index is seeded with {} games", byGameId.size());
+        } catch (Exception e) {
+            failed(e);
+        }
+    }
+
+    private static QueryCriteria unconsumedRecordedFrom(Instant from) {
+        QueryCriteria.TimeCondition timeCondition = from == null ? null : new QueryCriteria.TimeCondition(
+            QueryCriteria.TimeInstantType.RECORDED, Builder.greaterThanOrEqual(from));
+        return new QueryCriteria.VaultQueryCriteria(Vault.StateStatus.UNCONSUMED, null, null, null, null, timeCondition);
+    }
+
+    private synchronized void addAll(Vault.Page<XoGameState> page) {
+        List<StateAndRef<XoGameState>> states = page.getStates();
+        List<Vault.StateMetadata> metadata = page.getStatesMetadata();
+        for (int i = 0; i < states.size(); i++) {
+            if (!consumedWhileSeeding.contains(states.get(i).getRef())) {
+                put(states.get(i), metadata.get(i).getRecordedTime());
+            }
+        }
+    }
+
+    private void apply(Vault.Update<XoGameState> update, long updateGeneration) {
+        Map<StateRef, Instant> recordedTimes;
+        try {
+            recordedTimes = recordedTimes(update.getProduced());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (updateGeneration == generation) {
+                    failed(e);
+                }
+            }
+            return;
+        }
+        apply(update, updateGeneration, recordedTimes);
+    }
+
+    private synchronized void apply(Vault.Update<XoGameState> update, long updateGeneration, Map<StateRef, Instant> recordedTimes) {
+        if (updateGeneration != generation) {
+            // Queued update of previous feed, new seeding reads the vault again
+            return;
+        }
+        for (StateAndRef<XoGameState> consumed : update.getConsumed()) {
+            remove(consumed);
+            if (status == Status.SEEDING) {
+                consumedWhileSeeding.add(consumed.getRef());
+            }
+        }
+        for (StateAndRef<XoGameState> produced : update.getProduced()) {
+            put(produced, recordedTimes.get(produced.getRef()));
+        }
+        if (status != Status.SEEDING) {
+            lastUpdate = Instant.now();
+        }
+        for (StateAndRef<XoGameState> produced : update.getProduced()) {
+            IndexedGame game = byGameId.get(produced.getState().getData().getGameId());
+            if (game != null && game.getStateAndRef().getRef().equals(produced.getRef())) {
+                notifyListeners(game);
+            }
+        }
+    }
+
+    /**
+     * Vault update doesn't carry states metadata, so recording time of produced states is queried by their refs
+     */
+    private Map<StateRef, Instant> recordedTimes(Set<StateAndRef<XoGameState>> produced) {
+        if (produced.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        List<StateRef> refs = produced.stream().map(StateAndRef::getRef).collect(Collectors.toList());
+        Vault.Page<XoGameState> page = rpc.getProxy().vaultQueryByWithPagingSpec(XoGameState.class,
+            new QueryCriteria.VaultQueryCriteria(Vault.StateStatus.ALL, null, refs), new PageSpecification(1, refs.size()));
+        Map<StateRef, Instant> recordedTimes = new HashMap<>();
+        for (Vault.StateMetadata metadata : page.getStatesMetadata()) {
+            recordedTimes.put(metadata.getRef(), metadata.getRecordedTime());
+        }
+        return recordedTimes;
+    }
+
+    private void notifyListeners(IndexedGame game) {
+        for (Listener listener : listeners) {
+            try {
+                listener.gameUpdated(game);
+            } catch (RuntimeException e) {
+                logger.warn("Games index listener failed", e);
+            }
+        }
+    }
+
+    private synchronized void failed(Throwable error) {
+        status = Status.FAILED;
+        if (subscription != null) {
+            subscription.unsubscribe();
+            subscription = null;
+        }
+        if (reseedScheduled) {
+            return;
+        }
+        logger.error("Games index stopped following vault updates, seeding again in {} ms", reseedDelayMillis, error);
+        try {
+            seeder.schedule(this::seed, reseedDelayMillis, TimeUnit.MILLISECONDS);
+            reseedScheduled = true;
+            reseedDelayMillis = Math.min(reseedDelayMillis * 2, MAX_RESEED_DELAY_MILLIS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Games index is closed, it won't be seeded again");
+        }
+    }
+
+    private void put(StateAndRef<XoGameState> stateAndRef, Instant recordedTime) {
+        XoGameState state = stateAndRef.getState().getData();
+        IndexedGame previous = byGameId.get(state.getGameId());
+        if (previous != null && previous.getStateAndRef().getRef().equals(stateAndRef.getRef())) {
+            return;
+        }
+        byGameId.put(state.getGameId(), new IndexedGame(stateAndRef, recordedTime, sequence.incrementAndGet()));
+        for (String player : players(state)) {
+            gameIdsByPlayer.computeIfAbsent(player, key -> ConcurrentHashMap.newKeySet()).add(state.getGameId());
+        }
+    }
+
+    private void remove(StateAndRef<XoGameState> stateAndRef) {
+        XoGameState state = stateAndRef.getState().getData();
+        IndexedGame current = byGameId.get(state.getGameId());
+        if (current == null || !current.getStateAndRef().getRef().equals(stateAndRef.getRef())) {
+            return;
+        }
+        byGameId.remove(state.getGameId());
+        for (String player : players(state)) {
+            // Player without games is dropped, so the map doesn't grow with every player ever seen
+            gameIdsByPlayer.computeIfPresent(player, (key, gameIds) -> {
+                gameIds.remove(state.getGameId());
+                return gameIds.isEmpty() ? null : gameIds;
+            });
+        }
+    }
+
+    private static Collection<String> players(XoGameState state) {
+        return ImmutableList.of(state.getPlayer1().getName().toString(), state.getPlayer2().getName().toString());
+    }
+}
@@ -0,0 +1,168 @@
+package com.template.webserver.network;
+
+import com.template.webserver.NodeRPCConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import net.corda.core.identity.CordaX500Name;
+import net.corda.core.identity.Party;
+import net.corda.core.messaging.CordaRPCOps;
+import net.corda.core.messaging.DataFeed;
+import net.corda.core.node.NodeInfo;
+import net.corda.core.node.services.NetworkMapCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import rx.Subscription;
+
+/**
+ * Local copy of node's network map, fed by networkMapFeed(), so resolving party by X500 name and listing peers
+ * don't go to node.
+ * <p>
+ * When the feed fails (e.g. node restarts) the view keeps serving its last content, resolves unknown names by RPC
+ * and subscribes again in background with growing delay.
+ */
+@Component
+public class NetworkMapView implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkMapView.class);
+
+    private static final long INITIAL_RESUBSCRIBE_DELAY_MILLIS = 1000;
+    private static final long MAX_RESUBSCRIBE_DELAY_MILLIS = 60_000;
+
+    private final CordaRPCOps proxy;
+    private final Map<CordaX500Name, NodeInfo> nodes = new ConcurrentHashMap<>();
+    private final Map<CordaX500Name, Party> parties = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService subscriber = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "network-map-subscriber");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Party myIdentity;
+    private Subscription subscription;
+    private boolean resubscribeScheduled;
+    private long resubscribeDelayMillis = INITIAL_RESUBSCRIBE_DELAY_MILLIS;
+    private volatile boolean live;
+
+    public NetworkMapView(NodeRPCConnection rpc) {
+        this.proxy = rpc.getProxy();
+    }
+
+    @PostConstruct
+    public void start() {
+        myIdentity = proxy.nodeInfo().getLegalIdentities().get(0);
+        subscribe();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        subscriber.shutdownNow();
+        if (subscription != null) {
+            subscription.unsubscribe();
+        }
+    }
+
+    /**
+     * @return first legal identity of the node web server is connected to
+     */
+    public Party getMyIdentity() {
+        return myIdentity;
+    }
+
+    /**
+     * Memory lookup of well known party. Falls back to RPC only while the view doesn't follow network map
+     *
+     * @return party or null when no node in network map has identity with such name
+     */
+    public Party wellKnownParty(CordaX500Name name) {
+        Party party = parties.get(name);
+        if (party == null && !live) {
+            party = proxy.wellKnownPartyFromX500Name(name);
+        }
+        return party;
+    }
+
+    /**
+     * @return all nodes of network map, including notaries and this node
+     */
+    public List<NodeInfo> getNodes() {
+        return new ArrayList<>(nodes.values());
+    }
+
+    /**
+     * @return true when the view follows network map changes
+     */
+    public boolean isLive() {
+        return live;
+    }
+
+    private synchronized void subscribe() {
+        resubscribeScheduled = false;
+        try {
+            DataFeed<List<NodeInfo>, NetworkMapCache.MapChange> feed = proxy.networkMapFeed();
+            nodes.clear();
+            parties.clear();
+            for (NodeInfo node : feed.getSnapshot()) {
+                add(node);
+            }
+            // Changes wait for this lock, so they are applied after the snapshot
+            subscription = feed.getUpdates().subscribe(this::apply, this::failed);
+            live = true;
+            resubscribeDelayMillis = INITIAL_RESUBSCRIBE_DELAY_MILLIS;
+            logger.info("Network map view is seeded with {} nodes", nodes.size());
+        } catch (RuntimeException e) {
+            failed(e);
+        }
+    }
+
+    private synchronized void apply(NetworkMapCache.MapChange change) {
+        if (change instanceof NetworkMapCache.MapChange.Modified) {
+            remove(((NetworkMapCache.MapChange.Modified) change).getPreviousNode());
+            add(change.getNode());
+        } else if (change instanceof NetworkMapCache.MapChange.Removed) {
+            remove(change.getNode());
+        } else {
+            add(change.getNode());
+        }
+    }
+
+    private synchronized void failed(Throwable error) {
+        live = false;
+        if (subscription != null) {
+            subscription.unsubscribe();
+            subscription = null;
+        }
+        if (resubscribeScheduled) {
+            return;
+        }
+        logger.warn("Network map view stopped following changes, subscribing again in {} ms", resubscribeDelayMillis, error);
+        try {
+            subscriber.schedule(this::subscribe, resubscribeDelayMillis, TimeUnit.MILLISECONDS);
+            resubscribeScheduled = true;
+            resubscribeDelayMillis = Math.min(resubscribeDelayMillis * 2, MAX_RESUBSCRIBE_DELAY_MILLIS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Network map view is closed, it won't subscribe again");
+        }
+    }
+
+    private void add(NodeInfo node) {
+        nodes.put(node.getLegalIdentities().get(0).getName(), node);
+        for (Party party : node.getLegalIdentities()) {
+            parties.put(party.getName(), party);
+        }
+    }
+
+    private void remove(NodeInfo node) {
+        nodes.remove(node.getLegalIdentities().get(0).getName());
+        for (Party party : node.getLegalIdentities()) {
+            parties.remove(party.getName());
+        }
+    }
+}
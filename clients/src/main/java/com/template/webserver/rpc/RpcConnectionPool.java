@@ -0,0 +1,401 @@
+package com.template.webserver.rpc;
+
+import com.template.flows.metrics.LatencyHistogram;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import net.corda.client.rpc.CordaRPCConnection;
+import net.corda.client.rpc.RPCException;
+import net.corda.core.messaging.CordaRPCOps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed set of RPC connections to the same node. Every call of {@link #getProxy()} is executed by the healthy
+ * connection with the least number of calls in flight, so independent web requests don't queue behind single
+ * Artemis session. Number of calls in flight is limited per connection by its own semaphore (and by the pool in
+ * total, so waiting callers are served in order); time spent waiting for a free slot is exported by
+ * {@link RpcConnectionPoolMXBean}.
+ * <p>
+ * Connection which fails health check or RPC call with {@link RPCException} is excluded from selection and
+ * reopened in background with exponential backoff. While no connection is healthy (e.g. node restarts) calls wait
+ * for reconnect up to {@code reconnectWaitMillis} and then fail fast with {@link RpcUnavailableException}.
+ * <p>
+ * Observables returned by calls (vault and flow feeds) stay bound to the connection which created them and fail
+ * when it is lost, so their subscribers should subscribe again.
+ */
+public class RpcConnectionPool implements RpcConnectionPoolMXBean, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RpcConnectionPool.class);
+
+    private static final long INITIAL_RECONNECT_DELAY_MILLIS = 500;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private final Supplier<CordaRPCConnection> connector;
+    private final int maxInFlightPerConnection;
+    private final long borrowTimeoutMillis;
+    private final long healthCheckIntervalMillis;
+    private final long reconnectWaitMillis;
+    private final Object availability = new Object();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rpc-pool-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder reconnects = new LongAdder();
+    private final List<PooledConnection> connections = new ArrayList<>();
+    private final Semaphore slots;
+    private final AtomicInteger nextStart = new AtomicInteger();
+    private final LatencyHistogram borrowWait = new LatencyHistogram();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final CordaRPCOps proxy;
+
+    public RpcConnectionPool(Supplier<CordaRPCConnection> connector, int poolSize, int maxInFlightPerConnection,
+        long borrowTimeoutMillis, long healthCheckIntervalMillis, long reconnectWaitMillis) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("RPC pool size must be positive: " + poolSize);
+        }
+        this.connector = connector;
+        this.maxInFlightPerConnection = maxInFlightPerConnection;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+        this.reconnectWaitMillis = reconnectWaitMillis;
+        this.slots = new Semaphore(poolSize * maxInFlightPerConnection, true);
+        for (int i = 0; i < poolSize; i++) {
+            connections.add(new PooledConnection(i));
+        }
+        this.proxy = (CordaRPCOps) Proxy.newProxyInstance(CordaRPCOps.class.getClassLoader(),
+            new Class<?>[]{CordaRPCOps.class}, new PooledInvocationHandler());
+    }
+
+    /**
+     * Opens all connections (fails when any of them can't be opened) and starts periodic health check
+     */
+    public void start() {
+        for (PooledConnection connection : connections) {
+            connection.open();
+        }
+        scheduler.scheduleWithFixedDelay(this::checkHealth, healthCheckIntervalMillis, healthCheckIntervalMillis,
+            TimeUnit.MILLISECONDS);
+        logger.info("Opened {} RPC connections", connections.size());
+    }
+
+    /**
+     * @return true when at least one connection is healthy
+     */
+    public boolean isAvailable() {
+        return getHealthyConnections() > 0;
+    }
+
+    /**
+     * Facade which executes each call by one of pooled connections
+     */
+    public CordaRPCOps getProxy() {
+        return proxy;
+    }
+
+    /**
+     * Calls cheap RPC method on each connection and reopens failed ones
+     */
+    public void checkHealth() {
+        for (PooledConnection connection : connections) {
+            connection.checkHealth();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (PooledConnection connection : connections) {
+            // Connection which is being reopened is broken, node won't get the notification anyway
+            boolean graceful = connection.healthy;
+            connection.healthy = false;
+            connection.closeQuietly(graceful);
+        }
+    }
+
+    @Override
+    public int getPoolSize() {
+        return connections.size();
+    }
+
+    @Override
+    public int getHealthyConnections() {
+        return (int) connections.stream().filter(connection -> connection.healthy).count();
+    }
+
+    @Override
+    public int getInFlight() {
+        return connections.stream().mapToInt(PooledConnection::getInFlight).sum();
+    }
+
+    @Override
+    public long getReconnects() {
+        return reconnects.sum();
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowWait.getCount();
+    }
+
+    @Override
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.sum();
+    }
+
+    @Override
+    public double getBorrowWaitMeanMillis() {
+        return borrowWait.getMeanMillis();
+    }
+
+    @Override
+    public double getBorrowWaitP99Millis() {
+        return borrowWait.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getBorrowWaitMaxMillis() {
+        return borrowWait.getMaxMillis();
+    }
+
+    private PooledConnection borrow() {
+        long start = System.nanoTime();
+        try {
+            if (!slots.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new RpcUnavailableException("All RPC connections are busy for " + borrowTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcUnavailableException("Interrupted while waiting for RPC connection");
+        }
+        PooledConnection connection = acquireLeastBusy();
+        if (connection == null) {
+            connection = awaitConnection();
+        }
+        if (connection == null) {
+            slots.release();
+            if (isAvailable()) {
+                borrowTimeouts.increment();
+                throw new RpcUnavailableException("All healthy RPC connections are busy for " + borrowTimeoutMillis + " ms");
+            }
+            throw new RpcUnavailableException("No healthy RPC connection to node, reconnecting");
+        }
+        borrowWait.record(System.nanoTime() - start);
+        return connection;
+    }
+
+    private void release(PooledConnection connection) {
+        connection.permits.release();
+        slots.release();
+        if (waiting.get() > 0) {
+            synchronized (availability) {
+                availability.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits for a free slot of healthy connection: pool slot could be taken while healthy connections are full
+     * (the others are reconnecting) or no connection is healthy at all
+     */
+    private PooledConnection awaitConnection() {
+        long waitMillis = isAvailable() ? borrowTimeoutMillis : reconnectWaitMillis;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        waiting.incrementAndGet();
+        try {
+            synchronized (availability) {
+                PooledConnection connection = acquireLeastBusy();
+                long remaining;
+                while (connection == null && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(availability, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                    connection = acquireLeastBusy();
+                }
+                return connection;
+            }
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void checkHealthLater(PooledConnection connection) {
+        try {
+            scheduler.execute(connection::checkHealth);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Pool is closed, health check of RPC connection #{} is skipped", connection.number);
+        }
+    }
+
+    /**
+     * Takes slot of healthy connection with the least number of calls in flight
+     *
+     * @return connection or null when all healthy connections are full
+     */
+    private PooledConnection acquireLeastBusy() {
+        // Another caller could take the last slot of chosen connection, then the next one is tried
+        for (int attempt = 0; attempt < connections.size(); attempt++) {
+            PooledConnection connection = leastBusy();
+            if (connection == null) {
+                return null;
+            }
+            if (connection.permits.tryAcquire()) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Scan starts from different connection each time, so connections with equal load are used in turn
+     */
+    private PooledConnection leastBusy() {
+        int size = connections.size();
+        int start = Math.floorMod(nextStart.getAndIncrement(), size);
+        PooledConnection best = null;
+        for (int i = 0; i < size; i++) {
+            PooledConnection candidate = connections.get((start + i) % size);
+            if (candidate.healthy && candidate.permits.availablePermits() > 0
+                && (best == null || candidate.permits.availablePermits() > best.permits.availablePermits())) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private class PooledInvocationHandler implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object facade, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return facade == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(facade);
+                    default:
+                        return "Pooled CordaRPCOps of " + connections.size() + " connections";
+                }
+            }
+            PooledConnection connection = borrow();
+            try {
+                return method.invoke(connection.proxy, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RPCException) {
+                    // Could be lost connection as well as other RPC failure, health check tells the difference
+                    checkHealthLater(connection);
+                    throw new RpcUnavailableException("RPC call failed: " + e.getCause().getMessage(), e.getCause());
+                }
+                throw e.getCause();
+            } finally {
+                release(connection);
+            }
+        }
+    }
+
+    private class PooledConnection {
+
+        private final int number;
+        private final Semaphore permits = new Semaphore(maxInFlightPerConnection);
+        private final AtomicBoolean reconnecting = new AtomicBoolean();
+        private volatile CordaRPCConnection connection;
+        private volatile CordaRPCOps proxy;
+        private volatile boolean healthy;
+
+        private PooledConnection(int number) {
+            this.number = number;
+        }
+
+        private int getInFlight() {
+            return maxInFlightPerConnection - permits.availablePermits();
+        }
+
+        private void open() {
+            connection = connector.get();
+            proxy = connection.getProxy();
+            healthy = true;
+            synchronized (availability) {
+                availability.notifyAll();
+            }
+        }
+
+        private void checkHealth() {
+            if (reconnecting.get()) {
+                return;
+            }
+            try {
+                proxy.currentNodeTime();
+            } catch (Exception e) {
+                // Kotlin RPC client could also throw checked Artemis exceptions
+                failed(e);
+            }
+        }
+
+        private void failed(Throwable cause) {
+            if (!reconnecting.compareAndSet(false, true)) {
+                return;
+            }
+            healthy = false;
+            logger.warn("RPC connection #{} is lost, reconnecting", number, cause);
+            scheduleReconnect(INITIAL_RECONNECT_DELAY_MILLIS);
+        }
+
+        private void scheduleReconnect(long delayMillis) {
+            try {
+                scheduler.schedule(() -> reconnect(delayMillis), delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Pool is closed, RPC connection #{} won't be reopened", number);
+            }
+        }
+
+        private void reconnect(long delayMillis) {
+            closeQuietly(false);
+            try {
+                open();
+                reconnecting.set(false);
+                reconnects.increment();
+                logger.info("RPC connection #{} is reopened", number);
+            } catch (Exception e) {
+                // Next attempt should be scheduled whatever failed, otherwise the connection is never reopened
+                long nextDelay = Math.min(delayMillis * 2, MAX_RECONNECT_DELAY_MILLIS);
+                logger.debug("Failed to reopen RPC connection #{}, next attempt in {} ms", number, nextDelay, e);
+                scheduleReconnect(nextDelay);
+            }
+        }
+
+        /**
+         * @param graceful tells node that client leaves; broken connection is closed without waiting for node
+         */
+        private void closeQuietly(boolean graceful) {
+            if (connection != null) {
+                try {
+                    if (graceful) {
+                        connection.notifyServerAndClose();
+                    } else {
+                        connection.forceClose();
+                    }
+                } catch (Exception e) {
+                    logger.debug("Failed to close RPC connection #{}", number, e);
+                }
+            }
+        }
+    }
+}
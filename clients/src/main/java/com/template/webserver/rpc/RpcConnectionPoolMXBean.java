@@ -0,0 +1,31 @@
+package com.template.webserver.rpc;
+
+/**
+ * Exported to JMX as {@code com.template.webserver:type=RpcConnectionPool}
+ */
+public interface RpcConnectionPoolMXBean {
+
+    int getPoolSize();
+
+    int getHealthyConnections();
+
+    /**
+     * RPC calls being executed right now by all connections
+     */
+    int getInFlight();
+
+    /**
+     * Number of connections reopened after failure
+     */
+    long getReconnects();
+
+    long getBorrowCount();
+
+    long getBorrowTimeouts();
+
+    double getBorrowWaitMeanMillis();
+
+    double getBorrowWaitP99Millis();
+
+    double getBorrowWaitMaxMillis();
+}
@@ -0,0 +1,16 @@
+package com.template.webserver.rpc;
+
+/**
+ * No healthy RPC connection to node could be taken from pool in time. Web requests failed by it are answered
+ * with 503 and Retry-After header
+ */
+public class RpcUnavailableException extends RuntimeException {
+
+    public RpcUnavailableException(String message) {
+        super(message);
+    }
+
+    public RpcUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,8 +4,9 @@ import static net.corda.core.contracts.ContractsDSL.requireSingleCommand;
 
 import com.template.states.IOUState;
 import java.security.PublicKey;
-import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import net.corda.core.contracts.CommandData;
 import net.corda.core.contracts.CommandWithParties;
 import net.corda.core.contracts.Contract;
@@ -28,23 +29,29 @@ public class IOUContract implements Contract {
         // Constraints on the shape of the transaction.
         if (!tx.getInputs().isEmpty())
             throw new IllegalArgumentException("No inputs should be consumed when issuing an IOU.");
-        if (!(tx.getOutputs().size() == 1))
-            throw new IllegalArgumentException("There should be one output state of type IOUState.");
-
-        // IOU-specific constraints.
-        final IOUState output = tx.outputsOfType(IOUState.class).get(0);
-        final Party lender = output.getLender();
-        final Party borrower = output.getBorrower();
-        if (output.getValue() <= 0)
-            throw new IllegalArgumentException("The IOU's value must be non-negative.");
-        if (lender.equals(borrower))
-            throw new IllegalArgumentException("The lender and the borrower cannot be the same entity.");
-
-        // Constraints on the signers.
+        if (tx.getOutputs().isEmpty())
+            throw new IllegalArgumentException("There should be at least one output state of type IOUState.");
+        final List<IOUState> outputs = tx.outputsOfType(IOUState.class);
+        if (outputs.size() != tx.getOutputs().size())
+            throw new IllegalArgumentException("All output states should be of type IOUState.");
+
+        // IOU-specific constraints, checked for each IOU issued by the transaction.
+        final Set<PublicKey> expectedSigners = new LinkedHashSet<>();
+        for (IOUState output : outputs) {
+            final Party lender = output.getLender();
+            final Party borrower = output.getBorrower();
+            if (output.getValue() <= 0)
+                throw new IllegalArgumentException("The IOU's value must be non-negative.");
+            if (lender.equals(borrower))
+                throw new IllegalArgumentException("The lender and the borrower cannot be the same entity.");
+            expectedSigners.add(lender.getOwningKey());
+            expectedSigners.add(borrower.getOwningKey());
+        }
+
+        // Constraints on the signers: every lender and borrower, nobody else.
         final List<PublicKey> requiredSigners = command.getSigners();
-        final List<PublicKey> expectedSigners = Arrays.asList(borrower.getOwningKey(), lender.getOwningKey());
-        if (requiredSigners.size() != 2)
-            throw new IllegalArgumentException("There must be two signers.");
+        if (requiredSigners.size() != expectedSigners.size())
+            throw new IllegalArgumentException("There must be " + expectedSigners.size() + " signers.");
         if (!(requiredSigners.containsAll(expectedSigners)))
             throw new IllegalArgumentException("The borrower and lender must be signers.");
     }
@@ -28,6 +28,8 @@ public class XoGameContract implements Contract {
             verifyStartGameTransaction(tx, cmd);
         } else if (cmd.getValue() instanceof Commands.MakeStep) {
             verifyMakeStepTransaction(tx, cmd);
+        } else if (cmd.getValue() instanceof Commands.FinishGame) {
+            verifyFinishGameTransaction(tx, cmd);
         } else {
             throw new IllegalArgumentException("Unknown command.");
         }
@@ -39,22 +41,31 @@ public class XoGameContract implements Contract {
                 // Constraints on the shape of the transaction.
                 require.using("No inputs should be consumed during game start.",
                     tx.getInputs().isEmpty());
-                require.using("Only one output should be created during game start.",
-                    tx.getOutputs().size() == 1);
-
-                // XoGame-specific constraints.
-                XoGameState out = tx.outputsOfType(XoGameState.class).get(0);
-                require.using("Players should be different.",
-                    !out.getPlayer1().equals(out.getPlayer2()));
-                require.using("NextTurnOwner should be player1",
-                    out.getNextTurnOwner().equals(out.getPlayer1()));
-                require.using("Game id should be present",
-                    StringUtils.isNoneBlank(out.getGameId()));
-                require.using("Game field should be present",
-                    out.getGameField() != null);
+                require.using("At least one output should be created during game start.",
+                    !tx.getOutputs().isEmpty());
+                List<XoGameState> outs = tx.outputsOfType(XoGameState.class);
+                require.using("Only games should be created during game start.",
+                    outs.size() == tx.getOutputs().size());
+
+                // XoGame-specific constraints, several games could be started at once.
+                XoGameState first = outs.get(0);
+                for (XoGameState out : outs) {
+                    require.using("Players should be different.",
+                        !out.getPlayer1().equals(out.getPlayer2()));
+                    require.using("NextTurnOwner should be player1",
+                        out.getNextTurnOwner().equals(out.getPlayer1()));
+                    require.using("Game id should be present",
+                        StringUtils.isNoneBlank(out.getGameId()));
+                    require.using("Game field should be present",
+                        out.getGameField() != null);
+                    require.using("All games should be started by the same players",
+                        out.getPlayer1().equals(first.getPlayer1()) && out.getPlayer2().equals(first.getPlayer2()));
+                }
+                require.using("Game ids should be unique",
+                    outs.stream().map(XoGameState::getGameId).distinct().count() == outs.size());
 
                 // Constraints on the signers.
-                checkSignersConstraint(cmd, out);
+                checkSignersConstraint(cmd, first);
                 return null;
             }
         );
@@ -79,6 +90,8 @@ public class XoGameContract implements Contract {
                     out.getGameField() != null);
 
                 XoGameState in = tx.inputsOfType(XoGameState.class).get(0);
+                require.using("Game is already finished",
+                    !in.getGameField().isGameOver());
                 require.using("NextTurnOwner should be different.",
                     !in.getNextTurnOwner().equals(out.getNextTurnOwner()));
                 require.using("Game id should be the same",
@@ -99,6 +112,27 @@ public class XoGameContract implements Contract {
         );
     }
 
+    private void verifyFinishGameTransaction(LedgerTransaction tx, CommandWithParties<CommandData> cmd) {
+        requireThat(
+            require -> {
+                // Constraints on the shape of the transaction.
+                require.using("Only one input expected.",
+                    tx.getInputs().size() == 1);
+                require.using("No outputs should be created during game finish.",
+                    tx.getOutputs().isEmpty());
+
+                // XoGame-specific constraints.
+                XoGameState in = tx.inputsOfType(XoGameState.class).get(0);
+                require.using("Only finished game could be removed",
+                    in.getGameField().isGameOver());
+
+                // Constraints on the signers.
+                checkSignersConstraint(cmd, in);
+                return null;
+            }
+        );
+    }
+
     private void checkSignersConstraint(CommandWithParties<CommandData> cmd, XoGameState out) {
         List<PublicKey> signers = cmd.getSigners();
         List<PublicKey> expectedSigners = Arrays.asList(out.getPlayer1().getOwningKey(), out.getPlayer2().getOwningKey());
@@ -120,5 +154,12 @@ public class XoGameContract implements Contract {
         class MakeStep implements XoGameContract.Commands {
 
         }
+
+        /**
+         * Consumes the last state of finished game, so it doesn't stay in vault of players
+         */
+        class FinishGame implements XoGameContract.Commands {
+
+        }
     }
 }
@@ -0,0 +1,154 @@
+package com.template.model;
+
+/**
+ * Precomputed answers for every 3x3 board.
+ * <p>
+ * Board is encoded as base-3 number where cell with index row * 3 + col contributes 0 (empty), 1 (X) or 2 (O)
+ * multiplied by 3^index, so there are only 3^9 possible codes. For each code one byte is stored with winner,
+ * game-over flag, symbol which should make next step and flag whether position is reachable in regular game.
+ */
+public final class XoGameEngine {
+
+    public static final int POSITIONS_COUNT = 19683;
+
+    private static final int WINNER_MASK = 0x03;
+    private static final int WINNER_X = 0x01;
+    private static final int WINNER_O = 0x02;
+    private static final int GAME_OVER = 0x04;
+    private static final int TURN_SHIFT = 3;
+    private static final int TURN_MASK = 0x03 << TURN_SHIFT;
+    private static final int TURN_X = 0x01 << TURN_SHIFT;
+    private static final int TURN_O = 0x02 << TURN_SHIFT;
+    private static final int REACHABLE = 0x20;
+
+    private static final int FULL_BOARD = 0x1FF;
+    private static final int[] WIN_LINES = {
+        0x007, 0x049,   // row 0, col 0
+        0x038, 0x092,   // row 1, col 1
+        0x1C0, 0x124,   // row 2, col 2
+        0x111, 0x054    // diagonals
+    };
+
+    /**
+     * Contribution of 9-bit cells mask into base-3 code, so code = TERNARY[xMask] + 2 * TERNARY[oMask]
+     */
+    private static final int[] TERNARY = new int[FULL_BOARD + 1];
+    private static final byte[] TABLE = new byte[POSITIONS_COUNT];
+
+    static {
+        for (int mask = 0; mask <= FULL_BOARD; mask++) {
+            int code = 0;
+            for (int i = 8; i >= 0; i--) {
+                code = code * 3 + ((mask >>> i) & 1);
+            }
+            TERNARY[mask] = code;
+        }
+        for (int code = 0; code < POSITIONS_COUNT; code++) {
+            int xMask = 0;
+            int oMask = 0;
+            int rest = code;
+            for (int i = 0; i < 9; i++) {
+                int cell = rest % 3;
+                rest /= 3;
+                if (cell == 1) {
+                    xMask |= 1 << i;
+                } else if (cell == 2) {
+                    oMask |= 1 << i;
+                }
+            }
+            TABLE[code] = describe(xMask, oMask);
+        }
+        markReachable(0, 0);
+    }
+
+    private XoGameEngine() {
+    }
+
+    public static int encode(int xMask, int oMask) {
+        return TERNARY[xMask] + 2 * TERNARY[oMask];
+    }
+
+    public static XoWinner winner(int code) {
+        switch (TABLE[code] & WINNER_MASK) {
+            case WINNER_X:
+                return XoWinner.X_WIN;
+            case WINNER_O:
+                return XoWinner.O_WIN;
+            default:
+                return XoWinner.NONE;
+        }
+    }
+
+    /**
+     * Game is over when somebody won or there are no empty cells left
+     */
+    public static boolean isGameOver(int code) {
+        return (TABLE[code] & GAME_OVER) != 0;
+    }
+
+    /**
+     * @return symbol which should make next step or {@link XoState#E} when game is over or position is unreachable
+     */
+    public static XoState nextTurn(int code) {
+        switch (TABLE[code] & TURN_MASK) {
+            case TURN_X:
+                return XoState.X;
+            case TURN_O:
+                return XoState.O;
+            default:
+                return XoState.E;
+        }
+    }
+
+    /**
+     * Position is reachable when it could appear in game started from empty board with X making first step
+     */
+    public static boolean isReachable(int code) {
+        return (TABLE[code] & REACHABLE) != 0;
+    }
+
+    private static byte describe(int xMask, int oMask) {
+        int flags = 0;
+        if ((xMask & oMask) != 0) {
+            return (byte) flags;
+        }
+        for (int line : WIN_LINES) {
+            if ((xMask & line) == line) {
+                flags = WINNER_X;
+                break;
+            }
+            if ((oMask & line) == line) {
+                flags = WINNER_O;
+                break;
+            }
+        }
+        if (flags != 0 || (xMask | oMask) == FULL_BOARD) {
+            flags |= GAME_OVER;
+        }
+        return (byte) flags;
+    }
+
+    private static void markReachable(int xMask, int oMask) {
+        int code = encode(xMask, oMask);
+        if ((TABLE[code] & REACHABLE) != 0) {
+            return;
+        }
+        if ((TABLE[code] & GAME_OVER) != 0) {
+            TABLE[code] |= REACHABLE;
+            return;
+        }
+        boolean xTurn = Integer.bitCount(xMask) == Integer.bitCount(oMask);
+        TABLE[code] |= REACHABLE | (xTurn ? TURN_X : TURN_O);
+
+        int empty = ~(xMask | oMask) & FULL_BOARD;
+        while (empty != 0) {
+            int cell = empty & -empty;
+            empty &= ~cell;
+            if (xTurn) {
+                markReachable(xMask | cell, oMask);
+            } else {
+                markReachable(xMask, oMask | cell);
+            }
+        }
+    }
+}
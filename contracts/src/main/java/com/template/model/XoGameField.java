@@ -6,137 +6,191 @@ import static com.template.model.XoState.X;
 
 import net.corda.core.serialization.ConstructorForDeserialization;
 import net.corda.core.serialization.CordaSerializable;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+/**
+ * Immutable game field. Instances for all positions reachable in regular game are created once and shared,
+ * use {@link #valueOf(String)}, {@link #empty()} or {@link #intern()} to get them.
+ */
 @CordaSerializable
 public class XoGameField {
 
-    private final XoState cells[][];
+    private static final int O_SHIFT = 9;
+    private static final int CELLS_MASK = 0x1FF;
+
+    private static final char[] PRETTY_PRINT_TEMPLATE = "   |   |   ---|---|---   |   |   ---|---|---   |   |   ".toCharArray();
+
+    private static final XoGameField[] POOL = new XoGameField[XoGameEngine.POSITIONS_COUNT];
+
+    static {
+        for (int code = 0; code < XoGameEngine.POSITIONS_COUNT; code++) {
+            if (XoGameEngine.isReachable(code)) {
+                int bits = 0;
+                int rest = code;
+                for (int i = 0; i < 9; i++) {
+                    int cell = rest % 3;
+                    rest /= 3;
+                    if (cell == 1) {
+                        bits |= 1 << i;
+                    } else if (cell == 2) {
+                        bits |= 1 << (i + O_SHIFT);
+                    }
+                }
+                POOL[code] = new XoGameField(bits);
+            }
+        }
+    }
+
+    /**
+     * Board packed into one int: bits 0-8 mark cells taken by X, bits 9-17 - cells taken by O.
+     * Cell index is row * 3 + col.
+     */
+    private final int bits;
+    private String encoded;
 
     public XoGameField() {
-        this(new XoState[][]{
-            {E, E, E},
-            {E, E, E},
-            {E, E, E}
-        });
+        this(0);
     }
 
     public XoGameField(XoState[][] cells) {
-        this.cells = cells;
+        int bits = 0;
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                bits = withCell(bits, row * 3 + col, cells[row][col]);
+            }
+        }
+        this.bits = bits;
     }
 
     @ConstructorForDeserialization
     public XoGameField(String str) {
+        this(parse(str));
+    }
+
+    private XoGameField(int bits) {
+        this.bits = bits;
+    }
+
+    public static XoGameField empty() {
+        return POOL[0];
+    }
+
+    /**
+     * Same as {@link #XoGameField(String)} but returns shared instance when position is reachable
+     */
+    public static XoGameField valueOf(String str) {
+        return valueOf(parse(str));
+    }
+
+    private static XoGameField valueOf(int bits) {
+        XoGameField pooled = POOL[XoGameEngine.encode(bits & CELLS_MASK, bits >>> O_SHIFT)];
+        return pooled != null ? pooled : new XoGameField(bits);
+    }
+
+    /**
+     * @return shared instance with the same position or this instance when position is unreachable
+     */
+    public XoGameField intern() {
+        XoGameField pooled = POOL[code()];
+        return pooled != null ? pooled : this;
+    }
+
+    private static int parse(String str) {
         if (str.length() != 9) {
             throw new IllegalArgumentException("To create game field - 9 characters expected");
         }
-        cells = new XoState[3][3];
-        int row = 0;
-        int col = 0;
-        for (Character ch : str.toCharArray()) {
+        int bits = 0;
+        for (int i = 0; i < 9; i++) {
+            char ch = str.charAt(i);
             switch (ch) {
                 case 'X':
-                    cells[row][col] = X;
+                    bits |= 1 << i;
                     break;
                 case 'O':
-                    cells[row][col] = O;
+                    bits |= 1 << (i + O_SHIFT);
                     break;
                 case '-':
-                    cells[row][col] = E;
                     break;
                 default:
                     throw new IllegalArgumentException("Unknown character: " + ch);
             }
-            col++;
-            if (col > 2) {
-                col = 0;
-                row++;
-            }
         }
+        return bits;
     }
 
     /**
-     * Such getter required for serialization because we have constructor parameter with name `str`
+     * Such getter required for serialization because we have constructor parameter with name `str`. Packed board
+     * stays internal: field is serialized as string, so transactions recorded by previous versions stay readable
      */
     public String getStr() {
         return toString();
     }
 
     public XoState get(int row, int col) {
-        return cells[row][col];
+        int cell = 1 << (row * 3 + col);
+        if ((bits & cell) != 0) {
+            return X;
+        }
+        if ((bits & (cell << O_SHIFT)) != 0) {
+            return O;
+        }
+        return E;
     }
 
-    public void set(int row, int col, XoState state) {
-        cells[row][col] = state;
+    /**
+     * @return game field with cell changed to the given state, this field stays untouched
+     */
+    public XoGameField withMove(int row, int col, XoState state) {
+        return valueOf(withCell(bits, row * 3 + col, state));
+    }
+
+    private static int withCell(int bits, int index, XoState state) {
+        int cell = (1 << index) | (1 << (index + O_SHIFT));
+        return (bits & ~cell) | (maskOf(state) & cell);
     }
 
     public XoWinner determineWinner() {
-        for (int i = 0; i < 3; i++) {
-            if (checkRow(i, X)) {
-                return XoWinner.X_WIN;
-            }
-            if (checkRow(i, O)) {
-                return XoWinner.O_WIN;
-            }
-            if (checkCol(i, X)) {
-                return XoWinner.X_WIN;
-            }
-            if (checkCol(i, O)) {
-                return XoWinner.O_WIN;
-            }
-        }
-        if (checkDiags(X)) {
-            return XoWinner.X_WIN;
-        }
-        if (checkDiags(O)) {
-            return XoWinner.O_WIN;
-        }
+        return XoGameEngine.winner(code());
+    }
 
-        return XoWinner.NONE;
+    public boolean isGameOver() {
+        return XoGameEngine.isGameOver(code());
     }
 
-    private boolean checkRow(int row, XoState state) {
-        for (int i = 0; i < 3; i++) {
-            if (cells[row][i] != state) {
-                return false;
-            }
-        }
-        return true;
+    /**
+     * Symbol which should make next step according to count of symbols on the board, {@link XoState#E} when game is over
+     */
+    public XoState determineNextTurnSymbol() {
+        return XoGameEngine.nextTurn(code());
     }
 
-    private boolean checkCol(int col, XoState state) {
-        for (int i = 0; i < 3; i++) {
-            if (cells[i][col] != state) {
-                return false;
-            }
-        }
-        return true;
+    private int code() {
+        return XoGameEngine.encode(bits & CELLS_MASK, bits >>> O_SHIFT);
     }
 
-    private boolean checkDiags(XoState state) {
-        if (cells[1][1] != state) {
+    /**
+     * Valid change is exactly one previously empty cell taken by expectedNewState, so XOR of both boards
+     * should contain one bit which belongs to expectedNewState half of the new board.
+     */
+    public boolean checkCellChangeValidity(XoGameField gameField, XoState expectedNewState) {
+        int diff = this.bits ^ gameField.bits;
+        if (Integer.bitCount(diff) != 1) {
             return false;
         }
-        return (cells[0][0] == state && cells[2][2] == state) || (cells[2][0] == state && cells[0][2] == state);
+        int occupied = (this.bits | (this.bits >>> O_SHIFT)) & CELLS_MASK;
+        int changedCell = (diff | (diff >>> O_SHIFT)) & CELLS_MASK;
+        return (diff & gameField.bits & maskOf(expectedNewState)) != 0
+            && (occupied & changedCell) == 0;
     }
 
-    public boolean checkCellChangeValidity(XoGameField gameField, XoState expectedNewState) {
-        boolean oneChangeFound = false;
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                if (this.get(row, col) != gameField.get(row, col)) {
-                    if (oneChangeFound) {
-                        return false;
-                    }
-                    if (!(this.get(row, col) == E && gameField.get(row, col) == expectedNewState)) {
-                        return false;
-                    }
-                    oneChangeFound = true;
-                }
-            }
+    private static int maskOf(XoState state) {
+        switch (state) {
+            case X:
+                return CELLS_MASK;
+            case O:
+                return CELLS_MASK << O_SHIFT;
+            default:
+                return 0;
         }
-        return oneChangeFound;
     }
 
     @Override
@@ -151,57 +205,47 @@ public class XoGameField {
 
         XoGameField that = (XoGameField) o;
 
-        return new EqualsBuilder()
-            .append(cells, that.cells)
-            .isEquals();
+        return bits == that.bits;
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-            .append(cells)
-            .toHashCode();
+        return bits;
     }
 
     public String toPrettyPrintString() {
-        String result = "";
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                char ch = ' ';
-                switch (cells[row][col]) {
-                    case X:
-                        ch = 'X';
-                        break;
-                    case O:
-                        ch = 'O';
-                        break;
-                }
-                result += String.format(" %s |", ch);
-            }
-            result = result.substring(0, result.length() - 1);
-            result += "---|---|---";
+        char[] chars = PRETTY_PRINT_TEMPLATE.clone();
+        for (int i = 0; i < 9; i++) {
+            // Each row takes 11 chars and followed by 11 chars of separator, each cell takes 4 chars
+            chars[(i / 3) * 22 + (i % 3) * 4 + 1] = symbolAt(i, ' ');
         }
-        return result.substring(0, result.length() - 11);
+        return new String(chars);
     }
 
+    /**
+     * String is built once per instance, so repeated calls during serialization and vault mapping don't allocate
+     */
     @Override
     public String toString() {
-        String result = "";
-        for (int row = 0; row < 3; row++) {
-            for (int col = 0; col < 3; col++) {
-                switch (cells[row][col]) {
-                    case E:
-                        result += '-';
-                        break;
-                    case X:
-                        result += 'X';
-                        break;
-                    case O:
-                        result += 'O';
-                        break;
-                }
+        String result = encoded;
+        if (result == null) {
+            char[] chars = new char[9];
+            for (int i = 0; i < 9; i++) {
+                chars[i] = symbolAt(i, '-');
             }
+            result = new String(chars);
+            encoded = result;
         }
         return result;
     }
+
+    private char symbolAt(int index, char empty) {
+        if ((bits & (1 << index)) != 0) {
+            return 'X';
+        }
+        if ((bits & (1 << (index + O_SHIFT))) != 0) {
+            return 'O';
+        }
+        return empty;
+    }
 }
@@ -0,0 +1,70 @@
+package com.template.schema;
+
+import com.template.schema.XoGameSchemaV2.PersistentXoGame;
+import net.corda.core.node.services.vault.Builder;
+import net.corda.core.node.services.vault.FieldInfo;
+import net.corda.core.node.services.vault.QueryCriteria;
+import net.corda.core.node.services.vault.QueryCriteriaUtils;
+
+/**
+ * Vault query criteria over {@link PersistentXoGame} columns. They are translated into SQL conditions on indexed
+ * {@code xo_games_v2} columns, so game could be found without loading all games from vault
+ */
+public final class XoGameCriteria {
+
+    private static final FieldInfo GAME_ID = field("gameId");
+    private static final FieldInfo PLAYER1 = field("player1");
+    private static final FieldInfo PLAYER2 = field("player2");
+    private static final FieldInfo NEXT_TURN_OWNER = field("nextTurnOwner");
+    private static final FieldInfo FINISHED = field("finished");
+    private static final FieldInfo V1_GAME_ID = field("gameId", XoGameSchemaV1.PersistentXoGame.class);
+
+    private XoGameCriteria() {
+    }
+
+    /**
+     * Unconsumed state of the game with given id
+     */
+    public static QueryCriteria byGameId(String gameId) {
+        return new QueryCriteria.VaultCustomQueryCriteria(Builder.equal(GAME_ID, gameId));
+    }
+
+    /**
+     * Unconsumed state of the game with given id in not indexed {@code xo_games} table, which has rows of games
+     * recorded before {@link XoGameSchemaV2} was introduced and not migrated yet
+     */
+    public static QueryCriteria byGameIdV1(String gameId) {
+        return new QueryCriteria.VaultCustomQueryCriteria(Builder.equal(V1_GAME_ID, gameId));
+    }
+
+    /**
+     * Games where party with given X500 name is one of players
+     */
+    public static QueryCriteria byPlayer(String partyName) {
+        return new QueryCriteria.VaultCustomQueryCriteria(Builder.equal(PLAYER1, partyName))
+            .or(new QueryCriteria.VaultCustomQueryCriteria(Builder.equal(PLAYER2, partyName)));
+    }
+
+    /**
+     * Games waiting for move of party with given X500 name
+     */
+    public static QueryCriteria byNextTurnOwner(String partyName) {
+        return new QueryCriteria.VaultCustomQueryCriteria(Builder.equal(NEXT_TURN_OWNER, partyName));
+    }
+
+    public static QueryCriteria byFinished(boolean finished) {
+        return new QueryCriteria.VaultCustomQueryCriteria(Builder.equal(FINISHED, finished));
+    }
+
+    private static FieldInfo field(String name) {
+        return field(name, PersistentXoGame.class);
+    }
+
+    private static FieldInfo field(String name, Class<?> entityClass) {
+        try {
+            return QueryCriteriaUtils.getField(name, entityClass);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Unknown column of game schema: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.template.schema;
+
+import com.google.common.collect.ImmutableList;
+import java.util.UUID;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import net.corda.core.schemas.MappedSchema;
+import net.corda.core.schemas.PersistentState;
+import net.corda.core.serialization.CordaSerializable;
+
+/**
+ * Second version of game schema: adds {@code finished} column, so finished games could be filtered by SQL.
+ * It is mapped into its own table, rows of {@link XoGameSchemaV1} are left as is
+ */
+@CordaSerializable
+public class XoGameSchemaV2 extends MappedSchema {
+
+    public XoGameSchemaV2() {
+        super(XoGameSchema.class, 2, ImmutableList.of(PersistentXoGame.class));
+    }
+
+    @Entity(name = "PersistentXoGameV2")
+    @Table(name = "xo_games_v2", indexes = {
+        @Index(name = "xo_games_v2_game_id_idx", columnList = "game_id"),
+        @Index(name = "xo_games_v2_finished_idx", columnList = "finished")
+    })
+    public static class PersistentXoGame extends PersistentState {
+
+        @Column(name = "linear_id")
+        private final UUID linearId;
+        @Column(name = "game_id")
+        private final String gameId;
+        @Column(name = "player1")
+        private final String player1;
+        @Column(name = "player2")
+        private final String player2;
+        @Column(name = "next_turn_owner")
+        private final String nextTurnOwner;
+        @Column(name = "game_field")
+        private final String gameField;
+        @Column(name = "finished", nullable = false)
+        private final boolean finished;
+
+        public PersistentXoGame(UUID linearId, String gameId, String player1, String player2, String nextTurnOwner, String gameField,
+            boolean finished) {
+            this.linearId = linearId;
+            this.gameId = gameId;
+            this.player1 = player1;
+            this.player2 = player2;
+            this.nextTurnOwner = nextTurnOwner;
+            this.gameField = gameField;
+            this.finished = finished;
+        }
+
+        public PersistentXoGame() {
+            this.linearId = null;
+            this.gameId = null;
+            this.player1 = null;
+            this.player2 = null;
+            this.nextTurnOwner = null;
+            this.gameField = null;
+            this.finished = false;
+        }
+
+        public UUID getLinearId() {
+            return linearId;
+        }
+
+        public String getGameId() {
+            return gameId;
+        }
+
+        public String getPlayer1() {
+            return player1;
+        }
+
+        public String getPlayer2() {
+            return player2;
+        }
+
+        public String getNextTurnOwner() {
+            return nextTurnOwner;
+        }
+
+        public String getGameField() {
+            return gameField;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+}
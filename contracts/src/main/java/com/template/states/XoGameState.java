@@ -5,8 +5,10 @@ import com.template.contracts.XoGameContract;
 import com.template.model.XoGameField;
 import com.template.model.XoState;
 import com.template.schema.XoGameSchemaV1;
+import com.template.schema.XoGameSchemaV2;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import net.corda.core.contracts.BelongsToContract;
 import net.corda.core.contracts.LinearState;
 import net.corda.core.contracts.UniqueIdentifier;
@@ -16,8 +18,6 @@ import net.corda.core.schemas.MappedSchema;
 import net.corda.core.schemas.PersistentState;
 import net.corda.core.schemas.QueryableState;
 import net.corda.core.serialization.ConstructorForDeserialization;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.jetbrains.annotations.NotNull;
 
 @BelongsToContract(XoGameContract.class)
@@ -29,13 +29,14 @@ public class XoGameState implements LinearState, QueryableState {
     private final Party player2;
     private final Party nextTurnOwner;
     private final XoGameField gameField;
+    private final int hashCode;
 
     public XoGameState(String gameId, Party player1, Party player2) {
         this(gameId, player1, player2, player1);
     }
 
     public XoGameState(String gameId, Party player1, Party player2, Party nextTurnOwner) {
-        this(gameId, player1, player2, nextTurnOwner, new XoGameField());
+        this(gameId, player1, player2, nextTurnOwner, XoGameField.empty());
     }
 
     /**
@@ -52,7 +53,10 @@ public class XoGameState implements LinearState, QueryableState {
         this.player1 = player1;
         this.player2 = player2;
         this.nextTurnOwner = nextTurnOwner;
-        this.gameField = gameField;
+        // States with the same position share one field instance, freshly deserialized copy could be collected
+        this.gameField = gameField != null ? gameField.intern() : null;
+        // State is immutable, so hash is calculated once and used to reject unequal states in equals()
+        this.hashCode = Objects.hash(gameId, player1, player2, nextTurnOwner, this.gameField);
     }
 
     @NotNull
@@ -93,24 +97,17 @@ public class XoGameState implements LinearState, QueryableState {
 
         XoGameState that = (XoGameState) o;
 
-        return new EqualsBuilder()
-            .append(gameId, that.gameId)
-            .append(player1, that.player1)
-            .append(player2, that.player2)
-            .append(nextTurnOwner, that.nextTurnOwner)
-            .append(gameField, that.gameField)
-            .isEquals();
+        return hashCode == that.hashCode
+            && Objects.equals(gameField, that.gameField)
+            && Objects.equals(nextTurnOwner, that.nextTurnOwner)
+            && Objects.equals(gameId, that.gameId)
+            && Objects.equals(player1, that.player1)
+            && Objects.equals(player2, that.player2);
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-            .append(gameId)
-            .append(player1)
-            .append(player2)
-            .append(nextTurnOwner)
-            .append(gameField)
-            .toHashCode();
+        return hashCode;
     }
 
     @NotNull
@@ -130,6 +127,15 @@ public class XoGameState implements LinearState, QueryableState {
                 this.player2.getName().toString(),
                 this.nextTurnOwner.getName().toString(),
                 this.gameField.toString());
+        } else if (schema instanceof XoGameSchemaV2) {
+            return new XoGameSchemaV2.PersistentXoGame(
+                this.linearId.getId(),
+                this.gameId,
+                this.player1.getName().toString(),
+                this.player2.getName().toString(),
+                this.nextTurnOwner.getName().toString(),
+                this.gameField.toString(),
+                this.gameField.isGameOver());
         } else {
             throw new IllegalArgumentException("Unrecognised schema $schema");
         }
@@ -138,7 +144,7 @@ public class XoGameState implements LinearState, QueryableState {
     @NotNull
     @Override
     public Iterable<MappedSchema> supportedSchemas() {
-        return ImmutableList.of(new XoGameSchemaV1());
+        return ImmutableList.of(new XoGameSchemaV1(), new XoGameSchemaV2());
     }
 
     @Override
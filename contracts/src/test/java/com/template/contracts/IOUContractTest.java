@@ -17,6 +17,7 @@ public class IOUContractTest {
 
     private final TestIdentity alice = new TestIdentity(new CordaX500Name("Alice", "London", "GB"));
     private final TestIdentity bob = new TestIdentity(new CordaX500Name("Bob", "Glasgow", "GB"));
+    private final TestIdentity carol = new TestIdentity(new CordaX500Name("Carol", "Paris", "FR"));
     private MockServices ledgerServices = new MockServices(
         new TestIdentity(new CordaX500Name("TestId", "New York", "US")));
 
@@ -42,14 +43,70 @@ public class IOUContractTest {
     }
 
     @Test
-    public void iouContractRequiresOneOutputInTheTransaction() {
+    public void iouContractRequiresOutputInTheTransaction() {
         ledger(ledgerServices, l -> {
             l.transaction(tx -> {
-                // Has two outputs, will fail.
+                // Has no outputs, will fail.
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new IOUContract.Commands.Action());
+                return tx.failsWith("There should be at least one output state of type IOUState.");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void iouContractRequiresAllOutputsToBeIouStates() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                // Has IOU and wrong output type, will fail.
+                tx.output(IOUContract.ID, iouState);
+                tx.output(IOUContract.ID, new DummyState());
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new IOUContract.Commands.Action());
+                return tx.failsWith("All output states should be of type IOUState.");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void iouContractAcceptsBatchOfIous() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                // Two IOUs to Bob and one to Carol, all parties sign.
+                tx.output(IOUContract.ID, iouState);
                 tx.output(IOUContract.ID, iouState);
+                tx.output(IOUContract.ID, new IOUState(alice.getParty(), carol.getParty(), 5));
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey(), carol.getPublicKey()),
+                    new IOUContract.Commands.Action());
+                return tx.verifies();
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void iouContractRequiresEachOutputToBeValid() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                // Second IOU has zero amount, will fail.
+                tx.output(IOUContract.ID, iouState);
+                tx.output(IOUContract.ID, new IOUState(alice.getParty(), bob.getParty(), 0));
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new IOUContract.Commands.Action());
+                return tx.failsWith("The IOU's value must be non-negative.");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void iouContractRequiresAllBorrowersToBeSigners() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                // Carol doesn't sign her IOU, will fail.
                 tx.output(IOUContract.ID, iouState);
+                tx.output(IOUContract.ID, new IOUState(alice.getParty(), carol.getParty(), 5));
                 tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new IOUContract.Commands.Action());
-                return tx.failsWith("There should be one output state of type IOUState.");
+                return tx.failsWith("There must be 3 signers.");
             });
             return Unit.INSTANCE;
         });
@@ -139,7 +196,7 @@ public class IOUContractTest {
                 // Only one signer, will fail.
                 tx.output(IOUContract.ID, iouState);
                 tx.command(bob.getPublicKey(), new IOUContract.Commands.Action());
-                return tx.failsWith("There must be two signers.");
+                return tx.failsWith("There must be 2 signers.");
             });
             return Unit.INSTANCE;
         });
@@ -24,6 +24,7 @@ public class XoGameContractTest {
     private MockServices ledgerServices = new MockServices(new TestIdentity(new CordaX500Name("TestId", "New York", "US")));
     private XoGameState xoGameState;
     private XoGameState xoGameState2;
+    private XoGameState finishedGameState;
 
     @Before
     public void setup() {
@@ -33,6 +34,7 @@ public class XoGameContractTest {
             {E, X, E},
             {E, E, E}
         }));
+        finishedGameState = new XoGameState("First game", alice.getParty(), bob.getParty(), bob.getParty(), new XoGameField("XXXOO----"));
     }
 
     @Test
@@ -97,14 +99,53 @@ public class XoGameContractTest {
     }
 
     @Test
-    public void xoGameContractStartGameRequiresOneOutput() {
+    public void xoGameContractStartGameRequiresOutput() {
         ledger(ledgerServices, l -> {
             l.transaction(tx -> {
-                // Has 2 outputs, will fail.
+                // No outputs, will fail.
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.StartGame());
+                return tx.failsWith("At least one output should be created during game start.");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void xoGameContractStartGameAcceptsSeveralGames() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                tx.output(XoGameContract.ID, xoGameState);
+                tx.output(XoGameContract.ID, new XoGameState("Second game", alice.getParty(), bob.getParty()));
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.StartGame());
+                return tx.verifies();
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void xoGameContractStartGameRequiresUniqueGameIds() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                // Has 2 outputs with the same game id, will fail.
                 tx.output(XoGameContract.ID, xoGameState);
                 tx.output(XoGameContract.ID, xoGameState);
                 tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.StartGame());
-                return tx.failsWith("Only one output should be created during game start.");
+                return tx.failsWith("Game ids should be unique");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void xoGameContractStartGameRequiresSamePlayers() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                // Second game is started with other opponent, will fail.
+                tx.output(XoGameContract.ID, xoGameState);
+                tx.output(XoGameContract.ID, new XoGameState("Second game", alice.getParty(), incognito.getParty()));
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.StartGame());
+                return tx.failsWith("All games should be started by the same players");
             });
             return Unit.INSTANCE;
         });
@@ -366,6 +407,21 @@ public class XoGameContractTest {
         });
     }
 
+    @Test
+    public void xoGameContractMakeStepGameShouldNotBeFinished() {
+        xoGameState = new XoGameState(xoGameState.getGameId(), alice.getParty(), bob.getParty(), alice.getParty(), new XoGameField("OOOXX-X--"));
+        xoGameState2 = new XoGameState(xoGameState.getGameId(), alice.getParty(), bob.getParty(), bob.getParty(), new XoGameField("OOOXX-XX-"));
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                tx.input(XoGameContract.ID, xoGameState);
+                tx.output(XoGameContract.ID, xoGameState2);
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.MakeStep());
+                return tx.failsWith("Game is already finished");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
     @Test
     public void xoGameContractStartGame() {
         ledger(ledgerServices, l -> {
@@ -390,4 +446,53 @@ public class XoGameContractTest {
             return Unit.INSTANCE;
         });
     }
+
+    @Test
+    public void xoGameContractFinishGame() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                tx.input(XoGameContract.ID, finishedGameState);
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.FinishGame());
+                return tx.verifies();
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void xoGameContractFinishGameRequiresNoOutputs() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                tx.input(XoGameContract.ID, finishedGameState);
+                tx.output(XoGameContract.ID, finishedGameState);
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.FinishGame());
+                return tx.failsWith("No outputs should be created during game finish.");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void xoGameContractFinishGameRequiresFinishedGame() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                tx.input(XoGameContract.ID, xoGameState2);
+                tx.command(Arrays.asList(alice.getPublicKey(), bob.getPublicKey()), new XoGameContract.Commands.FinishGame());
+                return tx.failsWith("Only finished game could be removed");
+            });
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void xoGameContractFinishGameRequiresBothSigners() {
+        ledger(ledgerServices, l -> {
+            l.transaction(tx -> {
+                tx.input(XoGameContract.ID, finishedGameState);
+                tx.command(Arrays.asList(alice.getPublicKey()), new XoGameContract.Commands.FinishGame());
+                return tx.failsWith("There must be two signers.");
+            });
+            return Unit.INSTANCE;
+        });
+    }
 }
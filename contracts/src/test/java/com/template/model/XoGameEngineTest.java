@@ -0,0 +1,121 @@
+package com.template.model;
+
+import static com.template.model.XoState.E;
+import static com.template.model.XoState.O;
+import static com.template.model.XoState.X;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class XoGameEngineTest {
+
+    @Test
+    public void reachablePositionsCount() {
+        int reachable = 0;
+        for (int code = 0; code < XoGameEngine.POSITIONS_COUNT; code++) {
+            if (XoGameEngine.isReachable(code)) {
+                reachable++;
+            }
+        }
+        assertThat(reachable, is(5478));
+    }
+
+    @Test
+    public void encode() {
+        assertThat(XoGameEngine.encode(0, 0), is(0));
+        assertThat(XoGameEngine.encode(0x001, 0), is(1));
+        assertThat(XoGameEngine.encode(0, 0x001), is(2));
+        assertThat(XoGameEngine.encode(0x100, 0), is(6561));
+        assertThat(XoGameEngine.encode(0, 0x1FF), is(XoGameEngine.POSITIONS_COUNT - 1));
+    }
+
+    @Test
+    public void winnerAndGameOver() {
+        assertThat(lookupWinner("XXXOO----"), is(XoWinner.X_WIN));
+        assertThat(isGameOver("XXXOO----"), is(true));
+        assertThat(lookupWinner("XX-OOOX--"), is(XoWinner.O_WIN));
+        assertThat(lookupWinner("XOXXOOOXX"), is(XoWinner.NONE));
+        assertThat(isGameOver("XOXXOOOXX"), is(true));
+        assertThat(lookupWinner("----X----"), is(XoWinner.NONE));
+        assertThat(isGameOver("----X----"), is(false));
+    }
+
+    @Test
+    public void nextTurn() {
+        assertThat(nextTurn("---------"), is(X));
+        assertThat(nextTurn("----X----"), is(O));
+        assertThat(nextTurn("O---X----"), is(X));
+        assertThat("Game is over", nextTurn("XXXOO----"), is(E));
+        assertThat("Position is unreachable", nextTurn("XX-------"), is(E));
+    }
+
+    @Test
+    public void reachability() {
+        assertThat(isReachable("---------"), is(true));
+        assertThat(isReachable("XXXOO----"), is(true));
+        assertThat("O can't make first step", isReachable("O--------"), is(false));
+        assertThat("Game continued after X win", isReachable("XXXOOO---"), is(false));
+        assertThat("O won but X made extra step", isReachable("OOOXX-X-X"), is(false));
+    }
+
+    @Test
+    public void winnerMatchesLineScanForAllPositions() {
+        int[][] lines = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}, {0, 3, 6}, {1, 4, 7}, {2, 5, 8}, {0, 4, 8}, {2, 4, 6}};
+        for (int code = 0; code < XoGameEngine.POSITIONS_COUNT; code++) {
+            String board = decode(code);
+            boolean xWin = false;
+            boolean oWin = false;
+            for (int[] line : lines) {
+                String cells = "" + board.charAt(line[0]) + board.charAt(line[1]) + board.charAt(line[2]);
+                xWin |= cells.equals("XXX");
+                oWin |= cells.equals("OOO");
+            }
+            if (xWin != oWin) {
+                assertThat(board, XoGameEngine.winner(code), is(xWin ? XoWinner.X_WIN : XoWinner.O_WIN));
+            } else if (!xWin) {
+                assertThat(board, XoGameEngine.winner(code), is(XoWinner.NONE));
+                assertThat(board, XoGameEngine.isGameOver(code), is(board.indexOf('-') < 0));
+            }
+            assertThat(board, new XoGameField(board).determineWinner(), is(XoGameEngine.winner(code)));
+        }
+    }
+
+    private static int codeOf(String board) {
+        int xMask = 0;
+        int oMask = 0;
+        for (int i = 0; i < 9; i++) {
+            if (board.charAt(i) == 'X') {
+                xMask |= 1 << i;
+            } else if (board.charAt(i) == 'O') {
+                oMask |= 1 << i;
+            }
+        }
+        return XoGameEngine.encode(xMask, oMask);
+    }
+
+    private static String decode(int code) {
+        char[] chars = new char[9];
+        for (int i = 0; i < 9; i++) {
+            chars[i] = "-XO".charAt(code % 3);
+            code /= 3;
+        }
+        return new String(chars);
+    }
+
+    private static XoWinner lookupWinner(String board) {
+        return XoGameEngine.winner(codeOf(board));
+    }
+
+    private static boolean isGameOver(String board) {
+        return XoGameEngine.isGameOver(codeOf(board));
+    }
+
+    private static XoState nextTurn(String board) {
+        return XoGameEngine.nextTurn(codeOf(board));
+    }
+
+    private static boolean isReachable(String board) {
+        return XoGameEngine.isReachable(codeOf(board));
+    }
+}
@@ -4,6 +4,8 @@ import static com.template.model.XoState.E;
 import static com.template.model.XoState.O;
 import static com.template.model.XoState.X;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -24,15 +26,29 @@ public class XoGameFieldTest {
     }
 
     @Test
-    public void set() {
+    public void withMove() {
         XoGameField field = new XoGameField(new XoState[][]{
             {X, E, E},
             {O, X, E},
             {E, E, X}
         });
         assertThat(field.get(2, 2), is(XoState.X));
-        field.set(2, 2, O);
-        assertThat(field.get(2, 2), is(XoState.O));
+        XoGameField changedField = field.withMove(2, 2, O);
+        assertThat(changedField.get(2, 2), is(XoState.O));
+        assertThat("Original field stays untouched", field.get(2, 2), is(XoState.X));
+        assertThat(changedField.withMove(2, 2, E).toString(), is("X--OX----"));
+    }
+
+    @Test
+    public void sharedInstances() {
+        assertThat(XoGameField.empty(), is(sameInstance(XoGameField.valueOf("---------"))));
+        assertThat(XoGameField.valueOf("----X----"), is(sameInstance(XoGameField.empty().withMove(1, 1, X))));
+        assertThat(new XoGameField("----X----").intern(), is(sameInstance(XoGameField.valueOf("----X----"))));
+        assertThat(new XoGameField("----X----"), is(not(sameInstance(XoGameField.valueOf("----X----")))));
+
+        XoGameField unreachable = new XoGameField("XX-------");
+        assertThat("Unreachable position isn't shared", unreachable.intern(), is(sameInstance(unreachable)));
+        assertThat(XoGameField.valueOf("XX-------"), is(unreachable));
     }
 
     @Test
@@ -132,6 +148,16 @@ public class XoGameFieldTest {
         assertThat("when more than one cell changed 2", field1.checkCellChangeValidity(field3, O), is(false));
     }
 
+    @Test
+    public void checkCellChangeValidityWhenOccupiedCellOverwritten() {
+        XoGameField field1 = new XoGameField("X---O----");
+        assertThat("when X replaced by O", field1.checkCellChangeValidity(new XoGameField("O---O----"), O), is(false));
+        assertThat("when O replaced by X", field1.checkCellChangeValidity(new XoGameField("X---X----"), X), is(false));
+        assertThat("when O removed", field1.checkCellChangeValidity(new XoGameField("X--------"), O), is(false));
+        assertThat("when empty cell expected", field1.checkCellChangeValidity(new XoGameField("X---O---X"), E), is(false));
+        assertThat("when empty cell taken", field1.checkCellChangeValidity(new XoGameField("X---O---X"), X), is(true));
+    }
+
     @Test
     public void testGameFieldCreationFromStringForStringWithWrongLength() {
         try {
@@ -173,9 +199,22 @@ public class XoGameFieldTest {
             + " O | X |   "));
     }
 
+    @Test
+    public void testToPrettyPrintStringForFullField() {
+        XoGameField field = new XoGameField("XOXXOOOXX");
+        assertThat(field.toPrettyPrintString(), is(""
+            + " X | O | X "
+            + "---|---|---"
+            + " X | O | O "
+            + "---|---|---"
+            + " O | X | X "));
+    }
+
     @Test
     public void testToLinearString() {
         XoGameField field = new XoGameField("-O--X-OX-");
         assertThat(field.toString(), is("-O--X-OX-"));
+        assertThat("String is built once", field.toString(), is(sameInstance(field.toString())));
+        assertThat(field.getStr(), is("-O--X-OX-"));
     }
 }
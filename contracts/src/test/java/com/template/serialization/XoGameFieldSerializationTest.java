@@ -0,0 +1,47 @@
+package com.template.serialization;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.template.model.XoGameField;
+import java.nio.charset.StandardCharsets;
+import net.corda.core.serialization.SerializationFactory;
+import net.corda.core.serialization.SerializedBytes;
+import net.corda.testing.core.SerializationEnvironmentRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Game field keeps the serialized form of previous versions (board string in `str` property), so game states
+ * of transactions recorded before packed board was introduced are still deserialized.
+ */
+public class XoGameFieldSerializationTest {
+
+    private static final String[] BOARDS = {"---------", "----X----", "O---X----", "XO-XO-X--", "XOXXOOOXX"};
+
+    @Rule
+    public final SerializationEnvironmentRule testSerialization = new SerializationEnvironmentRule();
+
+    @Test
+    public void fieldIsSerializedAsBoardString() {
+        SerializationFactory factory = SerializationFactory.Companion.getDefaultFactory();
+        for (String board : BOARDS) {
+            SerializedBytes<XoGameField> bytes = factory.serialize(XoGameField.valueOf(board), factory.getDefaultContext());
+            String payload = new String(bytes.getBytes(), StandardCharsets.ISO_8859_1);
+            assertThat("Board string expected on the wire", payload.contains(board), is(true));
+        }
+    }
+
+    @Test
+    public void fieldSerializedInStringFormIsDeserializedToSharedInstance() {
+        SerializationFactory factory = SerializationFactory.Companion.getDefaultFactory();
+        for (String board : BOARDS) {
+            // Constructor used by previous versions, so the field is serialized the way it was before
+            SerializedBytes<XoGameField> bytes = factory.serialize(new XoGameField(board), factory.getDefaultContext());
+            XoGameField field = factory.deserialize(bytes, XoGameField.class, factory.getDefaultContext());
+            assertThat(field, is(XoGameField.valueOf(board)));
+            assertThat("Shared instance expected", field.intern(), is(sameInstance(XoGameField.valueOf(board))));
+        }
+    }
+}
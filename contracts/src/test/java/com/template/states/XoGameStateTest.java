@@ -14,6 +14,7 @@ import com.template.model.XoGameField;
 import com.template.model.XoState;
 import com.template.schema.XoGameSchemaV1;
 import com.template.schema.XoGameSchemaV1.PersistentXoGame;
+import com.template.schema.XoGameSchemaV2;
 import net.corda.core.identity.CordaX500Name;
 import net.corda.core.schemas.PersistentState;
 import net.corda.testing.core.TestIdentity;
@@ -87,6 +88,24 @@ public class XoGameStateTest {
         assertThat(persistentXoGame.getGameField(), is(gameField.toString()));
     }
 
+    @Test
+    public void testGenerateMappedObjectV2() {
+        final String gameId = "12345";
+        XoGameState gameState = new XoGameState(gameId, alice.getParty(), bob.getParty(), alice.getParty(), new XoGameField("XXXOO----"));
+
+        PersistentState mappedObject = gameState.generateMappedObject(new XoGameSchemaV2());
+
+        assertThat(mappedObject instanceof XoGameSchemaV2.PersistentXoGame, is(true));
+        XoGameSchemaV2.PersistentXoGame persistentXoGame = (XoGameSchemaV2.PersistentXoGame) mappedObject;
+        assertThat(persistentXoGame.getLinearId(), is(notNullValue()));
+        assertThat(persistentXoGame.getGameId(), is(gameId));
+        assertThat(persistentXoGame.getPlayer1(), is(alice.getParty().toString()));
+        assertThat(persistentXoGame.getPlayer2(), is(bob.getParty().toString()));
+        assertThat(persistentXoGame.getNextTurnOwner(), is(alice.getParty().toString()));
+        assertThat(persistentXoGame.getGameField(), is("XXXOO----"));
+        assertThat(persistentXoGame.isFinished(), is(true));
+    }
+
     @Test
     public void testEquals() {
         XoGameState state1 = new XoGameState("12345", alice.getParty(), bob.getParty(), alice.getParty(), new XoGameField(new XoState[][]{
@@ -0,0 +1,128 @@
+package com.template.flows.xogame;
+
+import com.template.flows.AbstractFlowTest;
+import com.template.flows.metrics.FlowStepLatencyMXBean;
+import com.template.flows.metrics.FlowStepMetrics;
+import com.template.model.XoGameField;
+import com.template.model.XoState;
+import com.template.states.XoGameState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.identity.Party;
+import net.corda.core.node.services.Vault;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.node.services.vault.QueryCriteria;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Capacity baseline: plays complete games on MockNetwork and reports flows per second, latency of each
+ * ProgressTrackerBuilder step and growth of NodeA vault. Step latencies aren't measured by the benchmark itself,
+ * they are read from FlowStepMetrics, so the report shows the same histograms nodes export via JMX.
+ * <p>
+ * Games are played in batches of {@code benchmark.concurrency} games: all flows of the same stage are started
+ * before network is pumped, so they are interleaved by nodes and notary. Run with
+ * {@code ./gradlew workflows:flowBenchmark -Dbenchmark.games=1000 -Dbenchmark.concurrency=100}
+ */
+public class GameThroughputBenchmark extends AbstractFlowTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameThroughputBenchmark.class);
+
+    /**
+     * Scripted moves (cell index is row * 3 + col) which lead to draw, X is NodeA, O is NodeB
+     */
+    private static final int[] MOVES = {4, 0, 2, 6, 3, 5, 1, 7, 8};
+
+    private final int gamesCount = Integer.getInteger("benchmark.games", 1000);
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 100);
+
+    public GameThroughputBenchmark() {
+        globalTimeout = new Timeout(Long.getLong("benchmark.timeoutMinutes", 60), TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void playGames() throws Exception {
+        logger.info("Playing {} games, {} concurrently", gamesCount, concurrency);
+        long vaultSizeBefore = vaultSize(Vault.StateStatus.ALL);
+        int flowsCount = 0;
+        long start = System.nanoTime();
+
+        for (int first = 0; first < gamesCount; first += concurrency) {
+            List<String> gameIds = new ArrayList<>();
+            for (int i = first; i < Math.min(first + concurrency, gamesCount); i++) {
+                gameIds.add("benchmark-game-" + i);
+            }
+
+            List<FlowLogic<?>> startFlows = new ArrayList<>();
+            for (String gameId : gameIds) {
+                startFlows.add(new StartGameFlow.Initiator(gameId, bParty));
+            }
+            flowsCount += runAll(nodeA, startFlows);
+
+            XoGameField field = XoGameField.empty();
+            for (int move = 0; move < MOVES.length; move++) {
+                boolean xTurn = move % 2 == 0;
+                field = field.withMove(MOVES[move] / 3, MOVES[move] % 3, xTurn ? XoState.X : XoState.O);
+                StartedMockNode node = xTurn ? nodeA : nodeB;
+                Party opponent = xTurn ? bParty : aParty;
+
+                List<FlowLogic<?>> stepFlows = new ArrayList<>();
+                for (String gameId : gameIds) {
+                    stepFlows.add(new MakeStepFlow.Initiator(gameId, opponent, field.toString()));
+                }
+                flowsCount += runAll(node, stepFlows);
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("Games played: {}, flows: {}, {} flows/sec, NodeA vault: {} unconsumed, {} total states",
+                first + gameIds.size(), flowsCount, String.format("%.1f", flowsCount / seconds),
+                vaultSize(Vault.StateStatus.UNCONSUMED), vaultSize(Vault.StateStatus.ALL));
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long vaultGrowth = vaultSize(Vault.StateStatus.ALL) - vaultSizeBefore;
+        logger.info("Completed {} flows in {} sec: {} flows/sec, NodeA vault grew by {} states ({} per game)",
+            flowsCount, String.format("%.1f", seconds), String.format("%.1f", flowsCount / seconds),
+            vaultGrowth, vaultGrowth / gamesCount);
+        reportStepLatencies();
+    }
+
+    /**
+     * Starts all flows on the node, pumps network until it is idle and waits for flows results
+     *
+     * @return number of completed flows
+     */
+    private int runAll(StartedMockNode node, List<FlowLogic<?>> flows) throws Exception {
+        List<CordaFuture<?>> futures = new ArrayList<>();
+        for (FlowLogic<?> flow : flows) {
+            futures.add(node.startFlow(flow));
+        }
+        mockNetwork.runNetwork();
+        for (CordaFuture<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+
+    private static void reportStepLatencies() {
+        logger.info(String.format("%-100s %8s %10s %10s %10s %10s", "Step", "count", "p50, ms", "p95, ms", "p99, ms", "max, ms"));
+        for (FlowStepLatencyMXBean latency : FlowStepMetrics.getLatencies()) {
+            logger.info(String.format("%-100s %8d %10.2f %10.2f %10.2f %10.2f",
+                latency.getFlow().substring(latency.getFlow().lastIndexOf('.') + 1) + ": " + latency.getStep(),
+                latency.getCount(), latency.getP50Millis(), latency.getP95Millis(), latency.getP99Millis(), latency.getMaxMillis()));
+        }
+    }
+
+    private long vaultSize(Vault.StateStatus status) {
+        QueryCriteria criteria = new QueryCriteria.VaultQueryCriteria(status);
+        return nodeA.transaction(() -> nodeA.getServices().getVaultService()
+            .queryBy(XoGameState.class, criteria, new PageSpecification(1, 1))
+            .getTotalStatesAvailable());
+    }
+}
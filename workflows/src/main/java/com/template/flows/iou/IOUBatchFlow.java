@@ -0,0 +1,171 @@
+package com.template.flows.iou;
+
+import static com.template.flows.tracker.ProgressTrackerBuilder.FINALISING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GATHERING_SIGS;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GENERATING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.SIGNING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.VERIFYING_TRANSACTION;
+import static net.corda.core.contracts.ContractsDSL.requireThat;
+
+import co.paralleluniverse.fibers.Suspendable;
+import com.template.contracts.IOUContract;
+import com.template.flows.notary.NotarySelector;
+import com.template.flows.tracker.ProgressTrackerBuilder;
+import com.template.states.IOUState;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import net.corda.core.contracts.Command;
+import net.corda.core.contracts.ContractState;
+import net.corda.core.contracts.TransactionState;
+import net.corda.core.crypto.SecureHash;
+import net.corda.core.flows.CollectSignaturesFlow;
+import net.corda.core.flows.FinalityFlow;
+import net.corda.core.flows.FlowException;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.flows.FlowSession;
+import net.corda.core.flows.InitiatedBy;
+import net.corda.core.flows.InitiatingFlow;
+import net.corda.core.flows.ReceiveFinalityFlow;
+import net.corda.core.flows.SignTransactionFlow;
+import net.corda.core.flows.StartableByRPC;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.core.utilities.ProgressTracker;
+
+/**
+ * Issues several IOUs, possibly to different borrowers, by single transaction: one notarisation for the whole
+ * batch and one signature per distinct borrower.
+ */
+public class IOUBatchFlow {
+
+    // ******************
+    // * Initiator flow *
+    // ******************
+    @InitiatingFlow
+    @StartableByRPC
+    public static class Initiator extends FlowLogic<SignedTransaction> {
+        private final List<Party> borrowers;
+        private final List<Integer> iouValues;
+
+        /**
+         * The progress tracker provides checkpoints indicating the progress of the flow to observers.
+         */
+        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build(Initiator.class);
+
+        /**
+         * @param borrowers borrower of each IOU
+         * @param iouValues value of each IOU, in the same order as borrowers
+         */
+        public Initiator(List<Party> borrowers, List<Integer> iouValues) {
+            this.borrowers = new ArrayList<>(borrowers);
+            this.iouValues = new ArrayList<>(iouValues);
+        }
+
+        @Override
+        public ProgressTracker getProgressTracker() {
+            return progressTracker;
+        }
+
+        @Suspendable
+        @Override
+        public SignedTransaction call() throws FlowException {
+            if (borrowers.isEmpty()) {
+                throw new FlowException("At least one IOU expected");
+            }
+            if (borrowers.size() != iouValues.size()) {
+                throw new FlowException("Borrower expected for each IOU value");
+            }
+            // We retrieve the notary identity chosen by configured strategy.
+            Party notary = getServiceHub().cordaService(NotarySelector.class).select();
+            Party me = getOurIdentity();
+
+            // Step 1
+            progressTracker.setCurrentStep(GENERATING_TRANSACTION);
+            TransactionBuilder txBuilder = new TransactionBuilder(notary);
+            Set<Party> counterparties = new LinkedHashSet<>();
+            for (int i = 0; i < borrowers.size(); i++) {
+                txBuilder.addOutputState(new IOUState(me, borrowers.get(i), iouValues.get(i)), IOUContract.ID);
+                counterparties.add(borrowers.get(i));
+            }
+            List<PublicKey> requiredSigners = new ArrayList<>();
+            requiredSigners.add(me.getOwningKey());
+            for (Party counterparty : counterparties) {
+                requiredSigners.add(counterparty.getOwningKey());
+            }
+            txBuilder.addCommand(new Command<>(new IOUContract.Commands.Action(), requiredSigners));
+
+            // Step 2
+            progressTracker.setCurrentStep(VERIFYING_TRANSACTION);
+            // Verifying the transaction.
+            txBuilder.verify(getServiceHub());
+
+            // Stage 3.
+            progressTracker.setCurrentStep(SIGNING_TRANSACTION);
+            // Signing the transaction.
+            SignedTransaction partSignedTx = getServiceHub().signInitialTransaction(txBuilder);
+
+            // Stage 4.
+            progressTracker.setCurrentStep(GATHERING_SIGS);
+            // Creating a session with each borrower, signatures are collected over all of them by one subflow.
+            List<FlowSession> sessions = new ArrayList<>();
+            for (Party counterparty : counterparties) {
+                sessions.add(initiateFlow(counterparty));
+            }
+            SignedTransaction fullySignedTx = subFlow(
+                new CollectSignaturesFlow(partSignedTx, sessions, CollectSignaturesFlow.Companion.tracker())
+            );
+
+            // Stage 5.
+            progressTracker.setCurrentStep(FINALISING_TRANSACTION);
+            // Finalising the transaction.
+            return subFlow(new FinalityFlow(fullySignedTx, sessions));
+        }
+    }
+
+    // ******************
+    // * Responder flow *
+    // ******************
+    @InitiatedBy(Initiator.class)
+    public static class Responder extends FlowLogic<SignedTransaction> {
+        private final FlowSession otherPartySession;
+
+        public Responder(FlowSession otherPartySession) {
+            this.otherPartySession = otherPartySession;
+        }
+
+        @Suspendable
+        @Override
+        public SignedTransaction call() throws FlowException {
+            Party me = getOurIdentity();
+
+            class SignTxFlow extends SignTransactionFlow {
+                private SignTxFlow(FlowSession otherPartySession, ProgressTracker progressTracker) {
+                    super(otherPartySession, progressTracker);
+                }
+
+                @Override
+                protected void checkTransaction(SignedTransaction stx) {
+                    requireThat(require -> {
+                        for (TransactionState<ContractState> output : stx.getTx().getOutputs()) {
+                            require.using("This must be an IOU transaction.", output.getData() instanceof IOUState);
+                            IOUState iou = (IOUState) output.getData();
+                            // IOUs of other borrowers are checked by them
+                            if (iou.getBorrower().equals(me)) {
+                                require.using("The IOU's value can't be too high.", iou.getValue() < 100);
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            SignTxFlow signTxFlow = new SignTxFlow(otherPartySession, SignTransactionFlow.Companion.tracker());
+            SecureHash expectedTxId = subFlow(signTxFlow).getId();
+            return subFlow(new ReceiveFinalityFlow(otherPartySession, expectedTxId));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import static net.corda.core.contracts.ContractsDSL.requireThat;
 import co.paralleluniverse.fibers.Suspendable;
 import com.google.common.collect.ImmutableSet;
 import com.template.contracts.IOUContract;
+import com.template.flows.notary.NotarySelector;
 import com.template.flows.tracker.ProgressTrackerBuilder;
 import com.template.states.IOUState;
 import java.security.PublicKey;
@@ -47,7 +48,7 @@ public class IOUFlow {
         /**
          * The progress tracker provides checkpoints indicating the progress of the flow to observers.
          */
-        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build();
+        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build(Initiator.class);
 
         public Initiator(Party otherParty, Integer iouValue) {
             this.otherParty = otherParty;
@@ -65,8 +66,8 @@ public class IOUFlow {
         @Suspendable
         @Override
         public SignedTransaction call() throws FlowException {
-            // We retrieve the notary identity from the network map.
-            Party notary = getServiceHub().getNetworkMapCache().getNotaryIdentities().get(0);
+            // We retrieve the notary identity chosen by configured strategy.
+            Party notary = getServiceHub().cordaService(NotarySelector.class).select();
 
             // Step 1
             progressTracker.setCurrentStep(GENERATING_TRANSACTION);
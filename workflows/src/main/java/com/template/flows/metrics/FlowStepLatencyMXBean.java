@@ -0,0 +1,24 @@
+package com.template.flows.metrics;
+
+/**
+ * Latency of one progress tracker step of a flow, exported to JMX as
+ * {@code com.template.flows:type=FlowStepLatency,flow=<flow class>,step="<step label>"}
+ */
+public interface FlowStepLatencyMXBean {
+
+    String getFlow();
+
+    String getStep();
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
@@ -0,0 +1,157 @@
+package com.template.flows.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import net.corda.core.utilities.ProgressTracker;
+import net.corda.core.utilities.ProgressTracker.Change;
+import net.corda.core.utilities.ProgressTracker.Step;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records time spent by flows in each step of their progress tracker. Step duration is time between it became
+ * current and next step of the same tracker (or DONE, set by flow framework on flow completion) became current.
+ * Steps of failed flows are not recorded. Histograms are tagged by flow class and exported as MXBeans, so they
+ * are visible in JConsole/Jolokia of the node.
+ * <p>
+ * Subscription to tracker changes isn't checkpointed: flow restored from checkpoint after node restart reports no
+ * steps, as flow framework gives no hook to instrument its tracker again. Such flows are missing from histograms
+ * rather than recorded with wrong durations.
+ */
+public final class FlowStepMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlowStepMetrics.class);
+    private static final String JMX_DOMAIN = "com.template.flows";
+
+    private static final ConcurrentMap<String, FlowStepLatency> LATENCIES = new ConcurrentHashMap<>();
+
+    private FlowStepMetrics() {
+    }
+
+    /**
+     * Subscribes to changes of given tracker. Should be called before flow start
+     *
+     * @return the same tracker
+     */
+    public static ProgressTracker instrument(Class<?> flowClass, ProgressTracker tracker) {
+        StepTimer timer = new StepTimer(flowClass);
+        tracker.getChanges().subscribe(change -> {
+            if (change instanceof Change.Position && ((Change.Position) change).getTracker() == tracker) {
+                timer.stepChanged(((Change.Position) change).getNewStep());
+            }
+        }, error -> timer.discard());
+        return tracker;
+    }
+
+    /**
+     * @return latency of given step or null when the step was never completed by flow of given class
+     */
+    public static FlowStepLatencyMXBean getLatency(Class<?> flowClass, Step step) {
+        return LATENCIES.get(key(flowClass, step));
+    }
+
+    public static Collection<FlowStepLatencyMXBean> getLatencies() {
+        return new ArrayList<>(LATENCIES.values());
+    }
+
+    private static void record(Class<?> flowClass, Step step, long nanos) {
+        LATENCIES.computeIfAbsent(key(flowClass, step), key -> register(new FlowStepLatency(flowClass.getName(), step.getLabel())))
+            .histogram.record(nanos);
+    }
+
+    private static FlowStepLatency register(FlowStepLatency latency) {
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=FlowStepLatency,flow=" + ObjectName.quote(latency.flow)
+                + ",step=" + ObjectName.quote(latency.step));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(latency, name);
+        } catch (JMException e) {
+            logger.warn("Failed to export latency of step '{}' of flow {} to JMX", latency.step, latency.flow, e);
+        }
+        return latency;
+    }
+
+    private static String key(Class<?> flowClass, Step step) {
+        return flowClass.getName() + '|' + step.getLabel();
+    }
+
+    private static class StepTimer {
+
+        private final Class<?> flowClass;
+        private Step step;
+        private long startedAt;
+
+        private StepTimer(Class<?> flowClass) {
+            this.flowClass = flowClass;
+        }
+
+        private synchronized void stepChanged(Step newStep) {
+            long now = System.nanoTime();
+            if (step != null && step != ProgressTracker.UNSTARTED.INSTANCE && step != ProgressTracker.DONE.INSTANCE) {
+                record(flowClass, step, now - startedAt);
+            }
+            step = newStep;
+            startedAt = now;
+        }
+
+        private synchronized void discard() {
+            step = null;
+        }
+    }
+
+    private static class FlowStepLatency implements FlowStepLatencyMXBean {
+
+        private final String flow;
+        private final String step;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private FlowStepLatency(String flow, String step) {
+            this.flow = flow;
+            this.step = step;
+        }
+
+        @Override
+        public String getFlow() {
+            return flow;
+        }
+
+        @Override
+        public String getStep() {
+            return step;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return histogram.getMeanMillis();
+        }
+
+        @Override
+        public double getP50Millis() {
+            return histogram.getPercentileMillis(50);
+        }
+
+        @Override
+        public double getP95Millis() {
+            return histogram.getPercentileMillis(95);
+        }
+
+        @Override
+        public double getP99Millis() {
+            return histogram.getPercentileMillis(99);
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return histogram.getMaxMillis();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.template.flows.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with exponential buckets: each bucket is 10% wider than previous one, so percentiles
+ * are reported with 10% precision for any latency from microseconds up to hours using fixed amount of memory
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS_COUNT = 240;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        buckets.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMillis() {
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : totalNanos.sum() / 1e6 / currentCount;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @param percentile value in range (0, 100]
+     * @return upper bound of bucket where requested percentile falls, but not more than max recorded value
+     */
+    public double getPercentileMillis(double percentile) {
+        long currentCount = count.sum();
+        if (currentCount == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(percentile / 100 * currentCount), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank && i < BUCKETS_COUNT - 1) {
+                return Math.min(Math.pow(GROWTH, i + 1) / 1e3, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Bucket {@code i} holds values in range [1.1^i, 1.1^(i+1)) microseconds
+     */
+    private static int bucketIndex(long nanos) {
+        double micros = Math.max(nanos / 1e3, 1);
+        return Math.min((int) (Math.log(micros) / LOG_GROWTH), BUCKETS_COUNT - 1);
+    }
+}
@@ -0,0 +1,115 @@
+package com.template.flows.notary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.corda.core.cordapp.CordappConfig;
+import net.corda.core.identity.CordaX500Name;
+import net.corda.core.identity.Party;
+import net.corda.core.node.AppServiceHub;
+import net.corda.core.node.services.CordaService;
+import net.corda.core.serialization.SingletonSerializeAsToken;
+
+/**
+ * Chooses notary for transactions without inputs. Transactions which consume states must use notary of their
+ * inputs instead.
+ * <p>
+ * Strategy is set by {@code notary.strategy} key of CorDapp config:
+ * <ul>
+ * <li>{@code pinned} (default) - notary named by {@code notary.name} key, or the first one of network parameters</li>
+ * <li>{@code round-robin} - notaries of network parameters in turn</li>
+ * <li>{@code sticky} - notary chosen by hash of given key (e.g. game id), so the same key always gets the same
+ * notary on every node</li>
+ * </ul>
+ * Notary identities are resolved once: they come from network parameters, which don't change while node runs.
+ */
+@CordaService
+public class NotarySelector extends SingletonSerializeAsToken {
+
+    public enum Strategy {
+        PINNED, ROUND_ROBIN, STICKY
+    }
+
+    static final String STRATEGY_KEY = "notary.strategy";
+    static final String NAME_KEY = "notary.name";
+
+    private final AppServiceHub serviceHub;
+    private final Strategy strategy;
+    private final CordaX500Name pinnedName;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<Party> notaries;
+    private volatile Party pinned;
+
+    public NotarySelector(AppServiceHub serviceHub) {
+        this.serviceHub = serviceHub;
+        CordappConfig config = serviceHub.getAppContext().getConfig();
+        this.strategy = config.exists(STRATEGY_KEY)
+            ? Strategy.valueOf(config.getString(STRATEGY_KEY).trim().toUpperCase(Locale.ROOT).replace('-', '_'))
+            : Strategy.PINNED;
+        this.pinnedName = config.exists(NAME_KEY) ? CordaX500Name.parse(config.getString(NAME_KEY)) : null;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return notary for transaction not bound to any key; sticky strategy falls back to pinned notary
+     */
+    public Party select() {
+        if (strategy == Strategy.ROUND_ROBIN) {
+            List<Party> all = getNotaries();
+            return all.get(Math.floorMod(next.getAndIncrement(), all.size()));
+        }
+        return getPinned();
+    }
+
+    /**
+     * @param key identifier of linear state (e.g. game id) the transaction starts
+     */
+    public Party select(String key) {
+        if (strategy == Strategy.STICKY) {
+            List<Party> all = getNotaries();
+            return all.get(Math.floorMod(key.hashCode(), all.size()));
+        }
+        return select();
+    }
+
+    private Party getPinned() {
+        if (pinned == null) {
+            if (pinnedName == null) {
+                // Network parameters order, the same notary flows used before selector was introduced
+                List<Party> all = serviceHub.getNetworkMapCache().getNotaryIdentities();
+                if (all.isEmpty()) {
+                    throw new IllegalStateException("No notaries in network parameters");
+                }
+                pinned = all.get(0);
+            } else {
+                Party notary = serviceHub.getNetworkMapCache().getNotary(pinnedName);
+                if (notary == null) {
+                    throw new IllegalStateException("Notary " + pinnedName + " is not found in network parameters");
+                }
+                pinned = notary;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Notaries for round-robin and sticky strategies. Sorted by name, so sticky choice doesn't depend on order of
+     * notaries known by particular node
+     */
+    private List<Party> getNotaries() {
+        if (notaries == null) {
+            List<Party> all = new ArrayList<>(serviceHub.getNetworkMapCache().getNotaryIdentities());
+            if (all.isEmpty()) {
+                throw new IllegalStateException("No notaries in network parameters");
+            }
+            all.sort(Comparator.comparing(party -> party.getName().toString()));
+            notaries = all;
+        }
+        return notaries;
+    }
+}
@@ -1,5 +1,6 @@
 package com.template.flows.tracker;
 
+import com.template.flows.metrics.FlowStepMetrics;
 import net.corda.core.flows.CollectSignaturesFlow;
 import net.corda.core.flows.FinalityFlow;
 import net.corda.core.utilities.ProgressTracker;
@@ -35,4 +36,11 @@ public class ProgressTrackerBuilder {
             FINALISING_TRANSACTION
         );
     }
+
+    /**
+     * Progress tracker which durations of steps are recorded by {@link FlowStepMetrics} under given flow class
+     */
+    public static ProgressTracker build(Class<?> flowClass) {
+        return FlowStepMetrics.instrument(flowClass, build());
+    }
 }
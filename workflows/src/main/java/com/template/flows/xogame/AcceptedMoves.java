@@ -0,0 +1,55 @@
+package com.template.flows.xogame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.corda.core.node.AppServiceHub;
+import net.corda.core.node.services.CordaService;
+import net.corda.core.serialization.SingletonSerializeAsToken;
+
+/**
+ * Moves this node agreed in advance to be made in its name by counterparty's {@link MakeStepsFlow} (bot matches,
+ * replay import). Responder signs its own moves of the chain only when they are the next accepted boards of the
+ * game, so counterparty can't make moves this node never chose. Plans are kept in memory only and are lost when
+ * node restarts.
+ */
+@CordaService
+public class AcceptedMoves extends SingletonSerializeAsToken {
+
+    private final Map<String, List<String>> boardsByGameId = new ConcurrentHashMap<>();
+
+    public AcceptedMoves(AppServiceHub serviceHub) {
+    }
+
+    /**
+     * Replaces accepted moves of the game, empty list revokes them
+     *
+     * @param boards game fields after each own move, in order
+     */
+    public void accept(String gameId, List<String> boards) {
+        if (boards.isEmpty()) {
+            boardsByGameId.remove(gameId);
+        } else {
+            boardsByGameId.put(gameId, new ArrayList<>(boards));
+        }
+    }
+
+    /**
+     * Takes given moves when they are the next accepted moves of the game, otherwise leaves accepted moves as is
+     *
+     * @return true when moves were accepted
+     */
+    public boolean take(String gameId, List<String> boards) {
+        boolean[] taken = {false};
+        boardsByGameId.computeIfPresent(gameId, (key, accepted) -> {
+            if (accepted.size() < boards.size() || !accepted.subList(0, boards.size()).equals(boards)) {
+                return accepted;
+            }
+            taken[0] = true;
+            List<String> left = new ArrayList<>(accepted.subList(boards.size(), accepted.size()));
+            return left.isEmpty() ? null : left;
+        });
+        return taken[0] || boards.isEmpty();
+    }
+}
@@ -0,0 +1,161 @@
+package com.template.flows.xogame;
+
+import static com.template.flows.tracker.ProgressTrackerBuilder.FINALISING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GATHERING_SIGS;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GENERATING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.SIGNING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.VERIFYING_TRANSACTION;
+
+import co.paralleluniverse.fibers.Suspendable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.template.contracts.XoGameContract;
+import com.template.flows.tracker.ProgressTrackerBuilder;
+import com.template.states.XoGameState;
+import net.corda.core.contracts.Command;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.crypto.SecureHash;
+import net.corda.core.flows.CollectSignaturesFlow;
+import net.corda.core.flows.FinalityFlow;
+import net.corda.core.flows.FlowException;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.flows.FlowSession;
+import net.corda.core.flows.InitiatedBy;
+import net.corda.core.flows.InitiatingFlow;
+import net.corda.core.flows.ReceiveFinalityFlow;
+import net.corda.core.flows.SignTransactionFlow;
+import net.corda.core.flows.StartableByRPC;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.core.transactions.WireTransaction;
+import net.corda.core.utilities.ProgressTracker;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Consumes the last state of finished game without outputs, so vault queries of games don't touch dead games.
+ * Result of the game stays in transaction history of both players.
+ */
+public class FinishGameFlow {
+
+    // ******************
+    // * Initiator flow *
+    // ******************
+    @InitiatingFlow
+    @StartableByRPC
+    public static class Initiator extends FlowLogic<SignedTransaction> {
+
+        private final String gameId;
+        private final Party opponent;
+
+        public Initiator(String gameId, Party opponent) {
+            this.gameId = gameId;
+            this.opponent = opponent;
+        }
+
+        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build(Initiator.class);
+
+        @Override
+        public ProgressTracker getProgressTracker() {
+            return progressTracker;
+        }
+
+        @Suspendable
+        @Override
+        public SignedTransaction call() throws FlowException {
+            Party me = getOurIdentity();
+
+            // Step 1
+            progressTracker.setCurrentStep(GENERATING_TRANSACTION);
+            StateAndRef<XoGameState> inputStateAndRef = getServiceHub().cordaService(XoGameStateLookup.class)
+                .lockCurrentState(gameId, getRunId().getUuid());
+            XoGameState inputState = inputStateAndRef.getState().getData();
+            if (!ImmutableSet.of(inputState.getPlayer1(), inputState.getPlayer2()).equals(ImmutableSet.of(me, opponent))) {
+                throw new FlowException("Wrong opponent");
+            }
+            if (!inputState.getGameField().isGameOver()) {
+                throw new FlowException("Game is not finished yet");
+            }
+
+            final Command<XoGameContract.Commands.FinishGame> txCommand = new Command<>(
+                new XoGameContract.Commands.FinishGame(),
+                ImmutableList.of(me.getOwningKey(), opponent.getOwningKey()));
+
+            // Input state could be consumed only by notary it is bound to
+            final TransactionBuilder txBuilder = new TransactionBuilder(inputStateAndRef.getState().getNotary())
+                .addInputState(inputStateAndRef)
+                .addCommand(txCommand);
+
+            // Step 2
+            progressTracker.setCurrentStep(VERIFYING_TRANSACTION);
+            // Verifying the transaction.
+            txBuilder.verify(getServiceHub());
+
+            // Stage 3.
+            progressTracker.setCurrentStep(SIGNING_TRANSACTION);
+            // Signing the transaction.
+            SignedTransaction partSignedTx = getServiceHub().signInitialTransaction(txBuilder);
+
+            // Stage 4.
+            progressTracker.setCurrentStep(GATHERING_SIGS);
+            // Creating a session with the other party.
+            FlowSession otherPartySession = initiateFlow(opponent);
+            // Obtaining the counterparty's signature.
+            SignedTransaction fullySignedTx = subFlow(
+                new CollectSignaturesFlow(partSignedTx, ImmutableSet.of(otherPartySession), CollectSignaturesFlow.Companion.tracker())
+            );
+
+            // Stage 5.
+            progressTracker.setCurrentStep(FINALISING_TRANSACTION);
+            // Finalising the transaction.
+            return subFlow(new FinalityFlow(fullySignedTx, ImmutableSet.of(otherPartySession)));
+        }
+    }
+
+    // ******************
+    // * Responder flow *
+    // ******************
+    @InitiatedBy(FinishGameFlow.Initiator.class)
+    public static class Responder extends FlowLogic<SignedTransaction> {
+
+        private final FlowSession otherPartySession;
+
+        public Responder(FlowSession otherPartySession) {
+            this.otherPartySession = otherPartySession;
+        }
+
+        @Suspendable
+        @Override
+        public SignedTransaction call() throws FlowException {
+
+            class SignTxFlow extends SignTransactionFlow {
+                private SignTxFlow(FlowSession otherPartySession, ProgressTracker progressTracker) {
+                    super(otherPartySession, progressTracker);
+                }
+
+                @Override
+                protected void checkTransaction(@NotNull SignedTransaction stx) throws FlowException {
+                    WireTransaction tx = stx.getTx();
+                    if (tx.getInputs().size() != 1 || !tx.getOutputs().isEmpty() || tx.getCommands().size() != 1
+                        || !(tx.getCommands().get(0).getValue() instanceof XoGameContract.Commands.FinishGame)) {
+                        throw new FlowException("Wrong shape of game finish transaction");
+                    }
+                    StateAndRef<XoGameState> input = getServiceHub().toStateAndRef(tx.getInputs().get(0));
+                    // Only the latest state of finished game known to this node could be removed
+                    StateAndRef<XoGameState> current = getServiceHub().cordaService(XoGameStateLookup.class)
+                        .findCurrentState(input.getState().getData().getGameId());
+                    if (current == null || !current.getRef().equals(input.getRef())) {
+                        throw new FlowException("Game finish should consume the latest state of the game");
+                    }
+                    if (!current.getState().getData().getGameField().isGameOver()) {
+                        throw new FlowException("Game is not finished yet");
+                    }
+                }
+            }
+
+            SignTxFlow signTxFlow = new SignTxFlow(otherPartySession, SignTransactionFlow.Companion.tracker());
+            SecureHash expectedTxId = subFlow(signTxFlow).getId();
+            return subFlow(new ReceiveFinalityFlow(otherPartySession, expectedTxId));
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.template.flows.xogame;
+
+import co.paralleluniverse.fibers.Suspendable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.template.contracts.XoGameContract;
+import com.template.flows.metrics.FlowStepMetrics;
+import com.template.flows.tracker.ProgressTrackerBuilder;
+import com.template.model.XoGameField;
+import com.template.states.XoGameState;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import net.corda.core.contracts.Command;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.contracts.StateRef;
+import net.corda.core.contracts.TransactionVerificationException;
+import net.corda.core.crypto.SecureHash;
+import net.corda.core.flows.CollectSignaturesFlow;
+import net.corda.core.flows.FinalityFlow;
+import net.corda.core.flows.FlowException;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.flows.FlowSession;
+import net.corda.core.flows.InitiatedBy;
+import net.corda.core.flows.InitiatingFlow;
+import net.corda.core.flows.ReceiveFinalityFlow;
+import net.corda.core.flows.SignTransactionFlow;
+import net.corda.core.flows.StartableByRPC;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.core.utilities.ProgressTracker;
+import net.corda.core.utilities.ProgressTracker.Step;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Long-lived channel between both players of a game: all moves go through single flow session instead of
+ * starting {@link MakeStepFlow} (and its responder) per move.
+ * <p>
+ * Each side takes its moves from {@link GameMoveQueue}, filled by {@link SubmitMove} flow. Player whose turn it is
+ * announces the move and sends it for signature; the other side waits on the session. Waiting for a local move
+ * polls the queue with sleeps which skip checkpoints; sleep grows from {@link #MIN_POLL_INTERVAL} to
+ * {@link #MAX_POLL_INTERVAL}, so idle turn costs under a hundred suspensions. Channel is closed when the game is over
+ * or the player whose turn it is has no move for {@link #IDLE_TIMEOUT}.
+ */
+public class GameChannelFlow {
+
+    static final Duration MIN_POLL_INTERVAL = Duration.ofMillis(100);
+    static final Duration MAX_POLL_INTERVAL = Duration.ofSeconds(5);
+    static final Duration IDLE_TIMEOUT = Duration.ofMinutes(5);
+
+    /**
+     * Wait for local or opponent's move, so it isn't counted by {@link FlowStepMetrics} as part of previous move
+     */
+    static final Step AWAITING_MOVE = new Step("Waiting for the next move.");
+
+    /**
+     * Queues move of this node for open channel of the game. Move is rejected when the game has no open channel
+     */
+    @StartableByRPC
+    public static class SubmitMove extends FlowLogic<Void> {
+
+        private final String gameId;
+        private final String newField;
+
+        public SubmitMove(String gameId, String newField) {
+            this.gameId = gameId;
+            this.newField = newField;
+        }
+
+        @Suspendable
+        @Override
+        public Void call() throws FlowException {
+            if (!getServiceHub().cordaService(GameMoveQueue.class).offer(gameId, newField)) {
+                throw new FlowException("No open channel for game " + gameId + " or it has too many moves waiting");
+            }
+            return null;
+        }
+    }
+
+    // ******************
+    // * Initiator flow *
+    // ******************
+    @InitiatingFlow
+    @StartableByRPC
+    public static class Initiator extends Channel {
+
+        private final String gameId;
+        private final Party opponent;
+
+        public Initiator(String gameId, Party opponent) {
+            this.gameId = gameId;
+            this.opponent = opponent;
+        }
+
+        @Suspendable
+        @Override
+        public List<SignedTransaction> call() throws FlowException {
+            StateAndRef<XoGameState> current = getServiceHub().cordaService(XoGameStateLookup.class)
+                .lockCurrentState(gameId, getRunId().getUuid());
+            checkPlayers(current, opponent);
+
+            FlowSession session = initiateFlow(opponent);
+            StateRef opponentRef = session.sendAndReceive(StateRef.class, gameId).unwrap(ref -> ref);
+            if (!opponentRef.equals(current.getRef())) {
+                throw new FlowException("Opponent has other state of game " + gameId);
+            }
+            return run(session, current);
+        }
+    }
+
+    // ******************
+    // * Responder flow *
+    // ******************
+    @InitiatedBy(GameChannelFlow.Initiator.class)
+    public static class Responder extends Channel {
+
+        private final FlowSession session;
+
+        public Responder(FlowSession session) {
+            this.session = session;
+        }
+
+        @Suspendable
+        @Override
+        public List<SignedTransaction> call() throws FlowException {
+            String gameId = session.receive(String.class).unwrap(id -> id);
+            StateAndRef<XoGameState> current = getServiceHub().cordaService(XoGameStateLookup.class)
+                .lockCurrentState(gameId, getRunId().getUuid());
+            checkPlayers(current, session.getCounterparty());
+            session.send(current.getRef());
+            return run(session, current);
+        }
+    }
+
+    /**
+     * Move loop shared by both sides of the channel
+     */
+    abstract static class Channel extends FlowLogic<List<SignedTransaction>> {
+
+        private final ProgressTracker progressTracker = FlowStepMetrics.instrument(getClass(), new ProgressTracker(
+            AWAITING_MOVE,
+            ProgressTrackerBuilder.GENERATING_TRANSACTION,
+            ProgressTrackerBuilder.VERIFYING_TRANSACTION,
+            ProgressTrackerBuilder.SIGNING_TRANSACTION,
+            ProgressTrackerBuilder.GATHERING_SIGS,
+            ProgressTrackerBuilder.FINALISING_TRANSACTION
+        ));
+
+        @Override
+        public ProgressTracker getProgressTracker() {
+            return progressTracker;
+        }
+
+        void checkPlayers(StateAndRef<XoGameState> state, Party opponent) throws FlowException {
+            XoGameState game = state.getState().getData();
+            if (!ImmutableSet.of(game.getPlayer1(), game.getPlayer2()).equals(ImmutableSet.of(getOurIdentity(), opponent))) {
+                throw new FlowException("Wrong opponent");
+            }
+        }
+
+        @Suspendable
+        List<SignedTransaction> run(FlowSession session, StateAndRef<XoGameState> current) throws FlowException {
+            String gameId = current.getState().getData().getGameId();
+            XoGameStateLookup lookup = getServiceHub().cordaService(XoGameStateLookup.class);
+            GameMoveQueue queue = getServiceHub().cordaService(GameMoveQueue.class);
+            List<SignedTransaction> moves = new ArrayList<>();
+            queue.open(gameId);
+            try {
+                while (!current.getState().getData().getGameField().isGameOver()) {
+                    SignedTransaction tx;
+                    progressTracker.setCurrentStep(AWAITING_MOVE);
+                    if (current.getState().getData().getNextTurnOwner().equals(getOurIdentity())) {
+                        TransactionBuilder txBuilder = awaitMove(current);
+                        session.send(txBuilder != null);
+                        if (txBuilder == null) {
+                            break;
+                        }
+                        tx = makeStep(txBuilder, session);
+                    } else {
+                        if (!session.receive(Boolean.class).unwrap(moveFollows -> moveFollows)) {
+                            break;
+                        }
+                        tx = acceptStep(current.getRef(), session);
+                    }
+                    moves.add(tx);
+                    current = lookup.lock(tx.getTx().outRef(0), getRunId().getUuid());
+                }
+            } finally {
+                queue.close(gameId);
+            }
+            return moves;
+        }
+
+        /**
+         * Waits for valid move of this node, invalid moves are dropped
+         *
+         * @return verified transaction of the move or null when no move was made in time
+         */
+        @Suspendable
+        private TransactionBuilder awaitMove(StateAndRef<XoGameState> current) throws FlowException {
+            XoGameState game = current.getState().getData();
+            GameMoveQueue queue = getServiceHub().cordaService(GameMoveQueue.class);
+            Instant deadline = getServiceHub().getClock().instant().plus(IDLE_TIMEOUT);
+            Duration pollInterval = MIN_POLL_INTERVAL;
+            while (getServiceHub().getClock().instant().isBefore(deadline)) {
+                String newField = queue.poll(game.getGameId());
+                if (newField == null) {
+                    sleep(pollInterval, true);
+                    pollInterval = pollInterval.multipliedBy(2);
+                    if (pollInterval.compareTo(MAX_POLL_INTERVAL) > 0) {
+                        pollInterval = MAX_POLL_INTERVAL;
+                    }
+                    continue;
+                }
+                pollInterval = MIN_POLL_INTERVAL;
+                progressTracker.setCurrentStep(ProgressTrackerBuilder.GENERATING_TRANSACTION);
+                try {
+                    Party opponent = game.getPlayer1().equals(getOurIdentity()) ? game.getPlayer2() : game.getPlayer1();
+                    XoGameState outputState = new XoGameState(game.getGameId(), game.getPlayer1(), game.getPlayer2(),
+                        opponent, XoGameField.valueOf(newField));
+                    TransactionBuilder txBuilder = new TransactionBuilder(current.getState().getNotary())
+                        .addInputState(current)
+                        .addOutputState(outputState, XoGameContract.ID)
+                        .addCommand(new Command<>(new XoGameContract.Commands.MakeStep(),
+                            ImmutableList.of(game.getPlayer1().getOwningKey(), game.getPlayer2().getOwningKey())));
+                    progressTracker.setCurrentStep(ProgressTrackerBuilder.VERIFYING_TRANSACTION);
+                    txBuilder.verify(getServiceHub());
+                    return txBuilder;
+                } catch (IllegalArgumentException | TransactionVerificationException e) {
+                    getLogger().warn("Move {} of game {} is rejected: {}", newField, game.getGameId(), e.getMessage());
+                    progressTracker.setCurrentStep(AWAITING_MOVE);
+                }
+            }
+            return null;
+        }
+
+        @Suspendable
+        private SignedTransaction makeStep(TransactionBuilder txBuilder, FlowSession session) throws FlowException {
+            progressTracker.setCurrentStep(ProgressTrackerBuilder.SIGNING_TRANSACTION);
+            SignedTransaction partSignedTx = getServiceHub().signInitialTransaction(txBuilder);
+
+            progressTracker.setCurrentStep(ProgressTrackerBuilder.GATHERING_SIGS);
+            SignedTransaction fullySignedTx = subFlow(
+                new CollectSignaturesFlow(partSignedTx, ImmutableSet.of(session), CollectSignaturesFlow.Companion.tracker())
+            );
+
+            progressTracker.setCurrentStep(ProgressTrackerBuilder.FINALISING_TRANSACTION);
+            return subFlow(new FinalityFlow(fullySignedTx, ImmutableSet.of(session)));
+        }
+
+        @Suspendable
+        private SignedTransaction acceptStep(StateRef expectedInput, FlowSession session) throws FlowException {
+
+            class SignTxFlow extends SignTransactionFlow {
+                private SignTxFlow(FlowSession otherPartySession, ProgressTracker progressTracker) {
+                    super(otherPartySession, progressTracker);
+                }
+
+                @Override
+                protected void checkTransaction(@NotNull SignedTransaction stx) throws FlowException {
+                    if (!stx.getTx().getInputs().equals(ImmutableList.of(expectedInput))) {
+                        throw new FlowException("Move should consume current state of the game");
+                    }
+                    XoGameMoveValidator.checkMove(getServiceHub(), stx, getOtherSideSession().getCounterparty());
+                }
+            }
+
+            progressTracker.setCurrentStep(ProgressTrackerBuilder.SIGNING_TRANSACTION);
+            SecureHash expectedTxId = subFlow(new SignTxFlow(session, SignTransactionFlow.Companion.tracker())).getId();
+            progressTracker.setCurrentStep(ProgressTrackerBuilder.FINALISING_TRANSACTION);
+            return subFlow(new ReceiveFinalityFlow(session, expectedTxId));
+        }
+    }
+}
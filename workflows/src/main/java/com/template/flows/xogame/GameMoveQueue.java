@@ -0,0 +1,58 @@
+package com.template.flows.xogame;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.corda.core.node.AppServiceHub;
+import net.corda.core.node.services.CordaService;
+import net.corda.core.serialization.SingletonSerializeAsToken;
+
+/**
+ * Moves of this node waiting to be made by open {@link GameChannelFlow} of their game. Moves are accepted only while
+ * channel of the game is open and up to {@link #MAX_WAITING_MOVES} per game, so the queue can't grow without it.
+ * Queue is in memory only: moves not taken by channel are lost when node restarts.
+ */
+@CordaService
+public class GameMoveQueue extends SingletonSerializeAsToken {
+
+    /**
+     * Player makes 5 moves at most, few more leave room for moves rejected by channel
+     */
+    static final int MAX_WAITING_MOVES = 9;
+
+    private final ConcurrentMap<String, BlockingQueue<String>> moves = new ConcurrentHashMap<>();
+
+    public GameMoveQueue(AppServiceHub serviceHub) {
+    }
+
+    /**
+     * Starts accepting moves of the game, called by its channel when it is opened
+     */
+    public void open(String gameId) {
+        moves.putIfAbsent(gameId, new ArrayBlockingQueue<>(MAX_WAITING_MOVES));
+    }
+
+    /**
+     * @return false when channel of the game isn't open or it has too many moves waiting
+     */
+    public boolean offer(String gameId, String newField) {
+        BlockingQueue<String> queue = moves.get(gameId);
+        return queue != null && queue.offer(newField);
+    }
+
+    /**
+     * @return next move of given game or null when there are no moves
+     */
+    public String poll(String gameId) {
+        BlockingQueue<String> queue = moves.get(gameId);
+        return queue != null ? queue.poll() : null;
+    }
+
+    /**
+     * Drops moves left and stops accepting new ones when channel of the game is closed
+     */
+    public void close(String gameId) {
+        moves.remove(gameId);
+    }
+}
@@ -15,10 +15,8 @@ import com.template.flows.tracker.ProgressTrackerBuilder;
 import com.template.model.XoGameField;
 import com.template.states.XoGameState;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import net.corda.core.contracts.Command;
-import net.corda.core.contracts.ContractState;
 import net.corda.core.contracts.StateAndRef;
 import net.corda.core.crypto.SecureHash;
 import net.corda.core.flows.CollectSignaturesFlow;
@@ -32,8 +30,6 @@ import net.corda.core.flows.ReceiveFinalityFlow;
 import net.corda.core.flows.SignTransactionFlow;
 import net.corda.core.flows.StartableByRPC;
 import net.corda.core.identity.Party;
-import net.corda.core.node.services.Vault;
-import net.corda.core.node.services.vault.QueryCriteria;
 import net.corda.core.transactions.SignedTransaction;
 import net.corda.core.transactions.TransactionBuilder;
 import net.corda.core.utilities.ProgressTracker;
@@ -58,7 +54,7 @@ public class MakeStepFlow {
             this.newField = newField;
         }
 
-        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build();
+        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build(Initiator.class);
 
         @Override
         public ProgressTracker getProgressTracker() {
@@ -68,34 +64,22 @@ public class MakeStepFlow {
         @Suspendable
         @Override
         public SignedTransaction call() throws FlowException {
-            final Party notary = getServiceHub().getNetworkMapCache().getNotaryIdentities().get(0);
             Party me = getOurIdentity();
 
             // Step 1
             progressTracker.setCurrentStep(GENERATING_TRANSACTION);
-            QueryCriteria queryCriteria = new QueryCriteria.LinearStateQueryCriteria(
-                ImmutableList.of(me, opponent),
-                null,
-                ImmutableList.of(gameId),
-                Vault.StateStatus.UNCONSUMED,
-                ImmutableSet.of(XoGameState.class)
-            );
-
-            Vault.Page<XoGameState> results = getServiceHub().getVaultService().queryBy(XoGameState.class, queryCriteria);
-            List<StateAndRef<XoGameState>> states = results.getStates();
-            if (states.isEmpty()) {
-                throw new FlowException("Required state not found");
-            } else if (states.size() > 1) {
-                throw new FlowException("There are more than one required state");
-            }
-
-            StateAndRef<XoGameState> inputStateAndRef = states.get(0);
+            // Current state is locked for this flow, concurrent move of the same game fails fast
+            StateAndRef<XoGameState> inputStateAndRef = getServiceHub().cordaService(XoGameStateLookup.class)
+                .lockCurrentState(gameId, getRunId().getUuid());
             XoGameState inputState = inputStateAndRef.getState().getData();
             getLogger().info(inputState.toString());
 
             if (!inputState.getNextTurnOwner().equals(me)) {
                 throw new FlowException("It's not this node turn");
             }
+            if (inputState.getGameField().isGameOver()) {
+                throw new FlowException("Game is already finished");
+            }
 
             Set<Party> players = new HashSet<>();
             players.add(inputState.getPlayer1());
@@ -108,14 +92,15 @@ public class MakeStepFlow {
             XoGameState outputState = new XoGameState(gameId,
                 inputState.getPlayer1(),
                 inputState.getPlayer2(),
-                opponent, new XoGameField(newField));
+                opponent, XoGameField.valueOf(newField));
             getLogger().info(outputState.toString());
 
             final Command<XoGameContract.Commands.MakeStep> txCommand = new Command<>(
                 new XoGameContract.Commands.MakeStep(),
                 ImmutableList.of(me.getOwningKey(), opponent.getOwningKey()));
 
-            final TransactionBuilder txBuilder = new TransactionBuilder(notary)
+            // Input state could be consumed only by notary it is bound to
+            final TransactionBuilder txBuilder = new TransactionBuilder(inputStateAndRef.getState().getNotary())
                 .addInputState(inputStateAndRef)
                 .addOutputState(outputState, XoGameContract.ID)
                 .addCommand(txCommand);
@@ -169,10 +154,8 @@ public class MakeStepFlow {
 
                 @Override
                 protected void checkTransaction(@NotNull SignedTransaction stx) throws FlowException {
-                    ContractState outputState = stx.getTx().getOutputs().get(0).getData();
-                    if (!(outputState instanceof XoGameState)) {
-                        throw new FlowException("Wrong output state type");
-                    }
+                    // Move is compared with the latest game state known to this node
+                    XoGameMoveValidator.checkMove(getServiceHub(), stx, getOtherSideSession().getCounterparty());
                 }
             }
 
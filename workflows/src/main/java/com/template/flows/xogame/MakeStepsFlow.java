@@ -0,0 +1,301 @@
+package com.template.flows.xogame;
+
+import static com.template.flows.tracker.ProgressTrackerBuilder.FINALISING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GATHERING_SIGS;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GENERATING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.SIGNING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.VERIFYING_TRANSACTION;
+
+import co.paralleluniverse.fibers.Suspendable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.template.contracts.XoGameContract;
+import com.template.flows.tracker.ProgressTrackerBuilder;
+import com.template.model.XoGameField;
+import com.template.states.XoGameState;
+import java.security.PublicKey;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import net.corda.core.contracts.Command;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.crypto.TransactionSignature;
+import net.corda.core.flows.FinalityFlow;
+import net.corda.core.flows.FlowException;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.flows.FlowSession;
+import net.corda.core.flows.InitiatedBy;
+import net.corda.core.flows.InitiatingFlow;
+import net.corda.core.flows.ReceiveFinalityFlow;
+import net.corda.core.flows.StartableByRPC;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.core.utilities.ProgressTracker;
+
+/**
+ * Applies ordered list of board transitions to one game (bot-vs-bot matches, replay import). Each move is a separate
+ * MakeStep transaction consuming output of the previous one, moves are made in turn by both players.
+ * <p>
+ * Transaction id doesn't depend on notarisation, so initiator builds and signs the whole chain up front and sends it
+ * in one message; responder checks each link against output of the previous one (the first link - against its
+ * vault) and returns its signatures of all links in one message. Then links are notarised and recorded in order,
+ * each by {@link FinalityFlow} over the same session, which also verifies contract of each link. Game state stays
+ * soft-locked by initiator until the last link is recorded.
+ * <p>
+ * Counterparty signs moves made in its name only when it accepted them in advance by {@link AcceptMoves}.
+ */
+public class MakeStepsFlow {
+
+    /**
+     * XO game is over after 9 moves at most
+     */
+    static final int MAX_MOVES = 9;
+
+    /**
+     * Lets counterparty's {@link Initiator} make given moves of this node in the game. Next call replaces them
+     */
+    @StartableByRPC
+    public static class AcceptMoves extends FlowLogic<Void> {
+
+        private final String gameId;
+        private final List<String> newFields;
+
+        public AcceptMoves(String gameId, List<String> newFields) {
+            this.gameId = gameId;
+            this.newFields = new ArrayList<>(newFields);
+        }
+
+        @Suspendable
+        @Override
+        public Void call() throws FlowException {
+            if (newFields.size() > MAX_MOVES) {
+                throw new FlowException("Up to " + MAX_MOVES + " moves expected");
+            }
+            List<String> boards = new ArrayList<>();
+            for (String newField : newFields) {
+                try {
+                    boards.add(XoGameField.valueOf(newField).toString());
+                } catch (IllegalArgumentException e) {
+                    throw new FlowException("Wrong game field: " + newField, e);
+                }
+            }
+            getServiceHub().cordaService(AcceptedMoves.class).accept(gameId, boards);
+            return null;
+        }
+    }
+
+    // ******************
+    // * Initiator flow *
+    // ******************
+    @InitiatingFlow
+    @StartableByRPC
+    public static class Initiator extends FlowLogic<List<SignedTransaction>> {
+
+        private final String gameId;
+        private final Party opponent;
+        private final List<String> newFields;
+
+        public Initiator(String gameId, Party opponent, List<String> newFields) {
+            this.gameId = gameId;
+            this.opponent = opponent;
+            this.newFields = new ArrayList<>(newFields);
+        }
+
+        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build(Initiator.class);
+
+        @Override
+        public ProgressTracker getProgressTracker() {
+            return progressTracker;
+        }
+
+        @Suspendable
+        @Override
+        public List<SignedTransaction> call() throws FlowException {
+            if (newFields.isEmpty() || newFields.size() > MAX_MOVES) {
+                throw new FlowException("From 1 to " + MAX_MOVES + " moves expected");
+            }
+            Party me = getOurIdentity();
+            XoGameStateLookup lookup = getServiceHub().cordaService(XoGameStateLookup.class);
+            StateAndRef<XoGameState> inputStateAndRef = lookup.lockCurrentState(gameId, getRunId().getUuid());
+            XoGameState game = inputStateAndRef.getState().getData();
+            if (!ImmutableSet.of(game.getPlayer1(), game.getPlayer2()).equals(ImmutableSet.of(me, opponent))) {
+                throw new FlowException("Wrong opponent");
+            }
+
+            // Stage 1.
+            progressTracker.setCurrentStep(GENERATING_TRANSACTION);
+            // Output of each link is input of the next one
+            List<TransactionBuilder> builders = new ArrayList<>();
+            StateAndRef<XoGameState> previous = inputStateAndRef;
+            for (String newField : newFields) {
+                TransactionBuilder txBuilder = buildStep(previous, XoGameField.valueOf(newField));
+                builders.add(txBuilder);
+                previous = txBuilder.toWireTransaction(getServiceHub()).outRef(0);
+            }
+
+            // Stage 2.
+            progressTracker.setCurrentStep(VERIFYING_TRANSACTION);
+            // Only the first link could be verified by contract now, the others consume states which aren't recorded
+            // yet, so they are checked against previous link and verified by contract on finality
+            builders.get(0).verify(getServiceHub());
+
+            // Stage 3.
+            progressTracker.setCurrentStep(SIGNING_TRANSACTION);
+            List<SignedTransaction> chain = new ArrayList<>();
+            for (TransactionBuilder txBuilder : builders) {
+                SignedTransaction partSignedTx = getServiceHub().signInitialTransaction(txBuilder);
+                if (!chain.isEmpty()) {
+                    XoGameMoveValidator.checkNextMove(chain.get(chain.size() - 1).getTx().outRef(0), partSignedTx);
+                }
+                chain.add(partSignedTx);
+            }
+
+            // Stage 4.
+            progressTracker.setCurrentStep(GATHERING_SIGS);
+            // Whole chain is signed by counterparty in one exchange.
+            FlowSession otherPartySession = initiateFlow(opponent);
+            List<TransactionSignature> signatures = otherPartySession.sendAndReceive(List.class, chain).unwrap(list -> {
+                if (list.size() != chain.size()) {
+                    throw new FlowException("Signature of each move expected");
+                }
+                List<TransactionSignature> checked = new ArrayList<>();
+                for (Object signature : list) {
+                    if (!(signature instanceof TransactionSignature)
+                        || !((TransactionSignature) signature).getBy().equals(opponent.getOwningKey())) {
+                        throw new FlowException("Signature of " + opponent.getName() + " expected");
+                    }
+                    checked.add((TransactionSignature) signature);
+                }
+                return checked;
+            });
+            List<SignedTransaction> fullySignedChain = new ArrayList<>();
+            for (int i = 0; i < chain.size(); i++) {
+                SignedTransaction fullySignedTx = chain.get(i).withAdditionalSignature(signatures.get(i));
+                try {
+                    fullySignedTx.verifySignaturesExcept(fullySignedTx.getTx().getNotary().getOwningKey());
+                } catch (SignatureException e) {
+                    throw new FlowException("Wrong signature of move " + newFields.get(i), e);
+                }
+                fullySignedChain.add(fullySignedTx);
+            }
+
+            // Stage 5.
+            progressTracker.setCurrentStep(FINALISING_TRANSACTION);
+            // Links are notarised back-to-back, each consumes output recorded by the previous one
+            List<SignedTransaction> transactions = new ArrayList<>();
+            for (SignedTransaction fullySignedTx : fullySignedChain) {
+                SignedTransaction tx = subFlow(new FinalityFlow(fullySignedTx, ImmutableSet.of(otherPartySession)));
+                transactions.add(tx);
+                lookup.lock(tx.getTx().outRef(0), getRunId().getUuid());
+            }
+            return transactions;
+        }
+
+        private TransactionBuilder buildStep(StateAndRef<XoGameState> inputStateAndRef, XoGameField newField)
+            throws FlowException {
+            XoGameState inputState = inputStateAndRef.getState().getData();
+            if (inputState.getGameField().isGameOver()) {
+                throw new FlowException("Game is already finished");
+            }
+            Party nextTurnOwner = inputState.getNextTurnOwner().equals(inputState.getPlayer1())
+                ? inputState.getPlayer2() : inputState.getPlayer1();
+            XoGameState outputState = new XoGameState(gameId,
+                inputState.getPlayer1(),
+                inputState.getPlayer2(),
+                nextTurnOwner, newField);
+
+            final Command<XoGameContract.Commands.MakeStep> txCommand = new Command<>(
+                new XoGameContract.Commands.MakeStep(),
+                ImmutableList.of(inputState.getPlayer1().getOwningKey(), inputState.getPlayer2().getOwningKey()));
+
+            // Input state could be consumed only by notary it is bound to
+            return new TransactionBuilder(inputStateAndRef.getState().getNotary())
+                .addInputState(inputStateAndRef)
+                .addOutputState(outputState, XoGameContract.ID)
+                .addCommand(txCommand);
+        }
+    }
+
+    // ******************
+    // * Responder flow *
+    // ******************
+    @InitiatedBy(MakeStepsFlow.Initiator.class)
+    public static class Responder extends FlowLogic<List<SignedTransaction>> {
+
+        private final FlowSession otherPartySession;
+
+        public Responder(FlowSession otherPartySession) {
+            this.otherPartySession = otherPartySession;
+        }
+
+        @Suspendable
+        @Override
+        public List<SignedTransaction> call() throws FlowException {
+            Party me = getOurIdentity();
+            Party counterparty = otherPartySession.getCounterparty();
+            List<SignedTransaction> chain = otherPartySession.receive(List.class).unwrap(list -> {
+                if (list.isEmpty() || list.size() > MAX_MOVES) {
+                    throw new FlowException("From 1 to " + MAX_MOVES + " moves expected");
+                }
+                List<SignedTransaction> transactions = new ArrayList<>();
+                for (Object tx : list) {
+                    if (!(tx instanceof SignedTransaction)) {
+                        throw new FlowException("Move transaction expected");
+                    }
+                    transactions.add((SignedTransaction) tx);
+                }
+                return transactions;
+            });
+
+            // Whole chain is checked before any link is signed
+            List<String> ownBoards = new ArrayList<>();
+            StateAndRef<XoGameState> previous = null;
+            for (SignedTransaction stx : chain) {
+                if (previous == null) {
+                    previous = XoGameMoveValidator.checkMove(getServiceHub(), stx);
+                    // Only the first link consumes recorded state, so only it could be verified by contract now
+                    try {
+                        stx.verify(getServiceHub(), false);
+                    } catch (SignatureException e) {
+                        throw new FlowException("Move should be signed by " + counterparty.getName(), e);
+                    }
+                } else {
+                    XoGameMoveValidator.checkNextMove(previous, stx);
+                }
+                PublicKey notaryKey = stx.getTx().getNotary().getOwningKey();
+                try {
+                    stx.verifySignaturesExcept(me.getOwningKey(), notaryKey);
+                } catch (SignatureException e) {
+                    throw new FlowException("Move should be signed by " + counterparty.getName(), e);
+                }
+
+                Party mover = previous.getState().getData().getNextTurnOwner();
+                XoGameState out = (XoGameState) stx.getTx().getOutputs().get(0).getData();
+                if (mover.equals(me)) {
+                    // Own move made by counterparty
+                    ownBoards.add(out.getGameField().toString());
+                } else if (!mover.equals(counterparty)) {
+                    throw new FlowException("Move is out of turn: it's not " + counterparty.getName() + " turn");
+                }
+                previous = stx.getTx().outRef(0);
+            }
+            String gameId = previous.getState().getData().getGameId();
+            if (!getServiceHub().cordaService(AcceptedMoves.class).take(gameId, ownBoards)) {
+                throw new FlowException("Moves " + ownBoards + " of game " + gameId + " weren't accepted by " + me.getName());
+            }
+
+            List<TransactionSignature> signatures = new ArrayList<>();
+            for (SignedTransaction stx : chain) {
+                signatures.add(getServiceHub().createSignature(stx));
+            }
+            otherPartySession.send(signatures);
+
+            List<SignedTransaction> transactions = new ArrayList<>();
+            for (SignedTransaction stx : chain) {
+                transactions.add(subFlow(new ReceiveFinalityFlow(otherPartySession, stx.getId())));
+            }
+            return transactions;
+        }
+    }
+}
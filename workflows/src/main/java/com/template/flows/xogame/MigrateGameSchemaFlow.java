@@ -0,0 +1,74 @@
+package com.template.flows.xogame;
+
+import co.paralleluniverse.fibers.Suspendable;
+import com.google.common.collect.ImmutableList;
+import com.template.schema.XoGameSchemaV2;
+import com.template.states.XoGameState;
+import java.util.List;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.flows.StartableByRPC;
+import net.corda.core.node.services.Vault;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.node.services.vault.QueryCriteria;
+import net.corda.core.node.services.vault.Sort;
+import net.corda.core.node.services.vault.SortAttribute;
+import net.corda.core.schemas.PersistentState;
+import net.corda.core.schemas.PersistentStateRef;
+
+/**
+ * Node maps only newly recorded states into {@link XoGameSchemaV2}, so games recorded before upgrade have no rows
+ * in its table and are not found by game criteria until their next move. This flow adds missing rows for all
+ * unconsumed games of the vault; it should be started once after upgrade and could be safely started again.
+ *
+ * @return number of games added to the table
+ */
+@StartableByRPC
+public class MigrateGameSchemaFlow extends FlowLogic<Integer> {
+
+    static final int PAGE_SIZE = 200;
+
+    /**
+     * Stable order, so pages neither skip nor repeat games while new games are recorded. Consumed states are paged
+     * too, so consuming a game doesn't shift next pages
+     */
+    private static final Sort OLDEST_FIRST = new Sort(ImmutableList.of(
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.VaultStateAttribute.RECORDED_TIME), Sort.Direction.ASC),
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.CommonStateAttribute.STATE_REF_TXN_ID), Sort.Direction.ASC),
+        new Sort.SortColumn(new SortAttribute.Standard(Sort.CommonStateAttribute.STATE_REF_INDEX), Sort.Direction.ASC)
+    ));
+
+    @Suspendable
+    @Override
+    public Integer call() {
+        XoGameSchemaV2 schema = new XoGameSchemaV2();
+        QueryCriteria criteria = new QueryCriteria.VaultQueryCriteria(Vault.StateStatus.ALL);
+        int migrated = 0;
+        for (int page = 1; ; page++) {
+            Vault.Page<XoGameState> result = getServiceHub().getVaultService()
+                .queryBy(XoGameState.class, criteria, new PageSpecification(page, PAGE_SIZE), OLDEST_FIRST);
+            List<StateAndRef<XoGameState>> states = result.getStates();
+            List<Vault.StateMetadata> metadata = result.getStatesMetadata();
+            int[] added = {0};
+            getServiceHub().withEntityManager(entityManager -> {
+                for (int i = 0; i < states.size(); i++) {
+                    if (metadata.get(i).getStatus() != Vault.StateStatus.UNCONSUMED) {
+                        continue;
+                    }
+                    StateAndRef<XoGameState> state = states.get(i);
+                    PersistentStateRef ref = new PersistentStateRef(state.getRef());
+                    if (entityManager.find(XoGameSchemaV2.PersistentXoGame.class, ref) == null) {
+                        PersistentState row = state.getState().getData().generateMappedObject(schema);
+                        row.setStateRef(ref);
+                        entityManager.persist(row);
+                        added[0]++;
+                    }
+                }
+            });
+            migrated += added[0];
+            if (states.size() < PAGE_SIZE) {
+                return migrated;
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import co.paralleluniverse.fibers.Suspendable;
 import com.google.common.collect.ImmutableSet;
 import com.template.contracts.XoGameContract;
 import com.template.contracts.XoGameContract.Commands.StartGame;
+import com.template.flows.notary.NotarySelector;
 import com.template.flows.tracker.ProgressTrackerBuilder;
 import com.template.states.XoGameState;
 import java.security.PublicKey;
@@ -52,7 +53,7 @@ public class StartGameFlow {
             this.opponent = opponent;
         }
 
-        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build();
+        private final ProgressTracker progressTracker = ProgressTrackerBuilder.build(Initiator.class);
 
         @Override
         public ProgressTracker getProgressTracker() {
@@ -62,7 +63,7 @@ public class StartGameFlow {
         @Suspendable
         @Override
         public SignedTransaction call() throws FlowException {
-            final Party notary = getServiceHub().getNetworkMapCache().getNotaryIdentities().get(0);
+            final Party notary = getServiceHub().cordaService(NotarySelector.class).select(gameId);
             Party me = getOurIdentity();
 
             // Step 1
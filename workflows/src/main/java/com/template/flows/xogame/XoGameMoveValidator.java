@@ -0,0 +1,129 @@
+package com.template.flows.xogame;
+
+import com.google.common.collect.ImmutableSet;
+import com.template.contracts.XoGameContract;
+import com.template.model.XoGameField;
+import com.template.states.XoGameState;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.contracts.TransactionState;
+import net.corda.core.flows.FlowException;
+import net.corda.core.identity.Party;
+import net.corda.core.node.ServiceHub;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.WireTransaction;
+
+/**
+ * Checks of proposed move made by responder before signing. Contract only checks that the move is valid in
+ * isolation; here it is compared with the latest game state of this node's vault (or with output of previous link
+ * of a move chain), so stale or out-of-turn proposals are rejected before finality and notarisation. Board checks
+ * use precomputed engine tables.
+ */
+public final class XoGameMoveValidator {
+
+    private XoGameMoveValidator() {
+    }
+
+    /**
+     * Checks move made by given player: it should be his turn in the latest game state known to this node
+     */
+    public static void checkMove(ServiceHub serviceHub, SignedTransaction stx, Party mover) throws FlowException {
+        StateAndRef<XoGameState> current = checkMove(serviceHub, stx);
+        if (!current.getState().getData().getNextTurnOwner().equals(mover)) {
+            throw new FlowException("Move is out of turn: it's not " + mover.getName() + " turn");
+        }
+    }
+
+    /**
+     * Checks move made by any player of the game
+     *
+     * @return latest game state known to this node, which is consumed by the move
+     */
+    public static StateAndRef<XoGameState> checkMove(ServiceHub serviceHub, SignedTransaction stx) throws FlowException {
+        WireTransaction tx = stx.getTx();
+        XoGameState out = checkShape(tx);
+
+        StateAndRef<XoGameState> current = serviceHub.cordaService(XoGameStateLookup.class).findCurrentState(out.getGameId());
+        if (current == null) {
+            throw new FlowException("Game " + out.getGameId() + " is unknown");
+        }
+        if (!tx.getInputs().get(0).equals(current.getRef())) {
+            throw new FlowException("Move is stale: it doesn't consume the latest state of game " + out.getGameId());
+        }
+        checkLink(current.getState(), tx);
+        checkTransition(current.getState().getData(), out);
+        return current;
+    }
+
+    /**
+     * Checks next link of a move chain built before previous moves are notarised, so the state it consumes is
+     * known only from the previous link
+     *
+     * @param previous output of the previous link
+     */
+    public static void checkNextMove(StateAndRef<XoGameState> previous, SignedTransaction stx) throws FlowException {
+        WireTransaction tx = stx.getTx();
+        XoGameState out = checkShape(tx);
+        if (!tx.getInputs().get(0).equals(previous.getRef())) {
+            throw new FlowException("Move chain is broken: move doesn't consume output of previous move of game "
+                + out.getGameId());
+        }
+        checkLink(previous.getState(), tx);
+        checkTransition(previous.getState().getData(), out);
+    }
+
+    private static XoGameState checkShape(WireTransaction tx) throws FlowException {
+        if (tx.getInputs().size() != 1 || tx.getOutputs().size() != 1 || tx.getCommands().size() != 1) {
+            throw new FlowException("Move should consume one state and produce one state");
+        }
+        if (!(tx.getCommands().get(0).getValue() instanceof XoGameContract.Commands.MakeStep)) {
+            throw new FlowException("Wrong command type");
+        }
+        if (!(tx.getOutputs().get(0).getData() instanceof XoGameState)) {
+            throw new FlowException("Wrong output state type");
+        }
+        return (XoGameState) tx.getOutputs().get(0).getData();
+    }
+
+    /**
+     * Checks what contract verification of the move relies on, as later links of a move chain can't be verified by
+     * contract before previous links are recorded
+     */
+    private static void checkLink(TransactionState<XoGameState> in, WireTransaction tx) throws FlowException {
+        if (!in.getNotary().equals(tx.getNotary())) {
+            throw new FlowException("Move should be notarised by notary of the game state");
+        }
+        if (!XoGameContract.ID.equals(tx.getOutputs().get(0).getContract())) {
+            throw new FlowException("Output state should be governed by " + XoGameContract.ID);
+        }
+        XoGameState game = in.getData();
+        if (!ImmutableSet.copyOf(tx.getCommands().get(0).getSigners())
+            .equals(ImmutableSet.of(game.getPlayer1().getOwningKey(), game.getPlayer2().getOwningKey()))) {
+            throw new FlowException("Move should be signed by both players");
+        }
+    }
+
+    private static void checkTransition(XoGameState in, XoGameState out) throws FlowException {
+        if (!in.getGameId().equals(out.getGameId())) {
+            throw new FlowException("Game id should be the same");
+        }
+        if (!in.getPlayer1().equals(out.getPlayer1()) || !in.getPlayer2().equals(out.getPlayer2())) {
+            throw new FlowException("Players should be the same");
+        }
+        Party opponent = in.getNextTurnOwner().equals(in.getPlayer1()) ? in.getPlayer2() : in.getPlayer1();
+        if (!out.getNextTurnOwner().equals(opponent)) {
+            throw new FlowException("Turn should pass to " + opponent.getName());
+        }
+
+        XoGameField before = in.getGameField();
+        if (before.isGameOver()) {
+            throw new FlowException("Game is already finished");
+        }
+        if (before.determineNextTurnSymbol() != in.determineNextTurnSymbol()) {
+            throw new FlowException("Board of game " + out.getGameId() + " doesn't match next turn owner");
+        }
+        if (!before.checkCellChangeValidity(out.getGameField(), in.determineNextTurnSymbol())) {
+            throw new FlowException("Move is illegal: exactly one empty cell should be taken by "
+                + in.determineNextTurnSymbol());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.template.flows.xogame;
+
+import com.template.schema.XoGameCriteria;
+import com.template.states.XoGameState;
+import java.util.List;
+import java.util.UUID;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.flows.FlowException;
+import net.corda.core.node.AppServiceHub;
+import net.corda.core.node.services.CordaService;
+import net.corda.core.node.services.StatesNotAvailableException;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.node.services.vault.QueryCriteria;
+import net.corda.core.serialization.SingletonSerializeAsToken;
+import net.corda.core.utilities.NonEmptySet;
+
+/**
+ * Finds current state of the game by indexed {@code xo_games_v2.game_id} column and soft-locks it for the calling
+ * flow, so concurrent move of the same game fails here, before signatures are collected and notary is asked.
+ * Lock is released by flow framework when the flow finishes.
+ */
+@CordaService
+public class XoGameStateLookup extends SingletonSerializeAsToken {
+
+    private final AppServiceHub serviceHub;
+
+    public XoGameStateLookup(AppServiceHub serviceHub) {
+        this.serviceHub = serviceHub;
+    }
+
+    /**
+     * Should be called from flow
+     *
+     * @param lockId id of the calling flow run, {@code getRunId().getUuid()}
+     * @throws FlowException when game isn't found or its state is locked by another flow
+     */
+    public StateAndRef<XoGameState> lockCurrentState(String gameId, UUID lockId) throws FlowException {
+        StateAndRef<XoGameState> state = findCurrentState(gameId);
+        if (state == null) {
+            throw new FlowException("Required state not found");
+        }
+        return lock(state, lockId);
+    }
+
+    /**
+     * Unconsumed state of the game in this node's vault, without locking. Game recorded before upgrade and not
+     * migrated by {@link MigrateGameSchemaFlow} yet is looked up in V1 table
+     *
+     * @return state or null when the game is unknown
+     * @throws FlowException when game chain is broken and there are several unconsumed states
+     */
+    public StateAndRef<XoGameState> findCurrentState(String gameId) throws FlowException {
+        List<StateAndRef<XoGameState>> states = query(XoGameCriteria.byGameId(gameId));
+        if (states.isEmpty()) {
+            states = query(XoGameCriteria.byGameIdV1(gameId));
+        }
+        if (states.size() > 1) {
+            throw new FlowException("There are more than one required state");
+        }
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    private List<StateAndRef<XoGameState>> query(QueryCriteria criteria) {
+        // Two states are requested to detect broken game chain
+        return serviceHub.getVaultService()
+            .queryBy(XoGameState.class, criteria, new PageSpecification(1, 2))
+            .getStates();
+    }
+
+    /**
+     * Soft-locks given game state, e.g. state just produced by the calling flow
+     *
+     * @throws FlowException when the state is locked by another flow or consumed
+     */
+    public StateAndRef<XoGameState> lock(StateAndRef<XoGameState> state, UUID lockId) throws FlowException {
+        try {
+            serviceHub.getVaultService().softLockReserve(lockId, NonEmptySet.of(state.getRef()));
+        } catch (StatesNotAvailableException e) {
+            throw new FlowException("Game " + state.getState().getData().getGameId() + " is being changed by another flow", e);
+        }
+        return state;
+    }
+}
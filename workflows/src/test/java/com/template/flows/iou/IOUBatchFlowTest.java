@@ -0,0 +1,51 @@
+package com.template.flows.iou;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.template.flows.AbstractFlowTest;
+import com.template.states.IOUState;
+import java.util.Arrays;
+import java.util.List;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.contracts.Command;
+import net.corda.core.identity.CordaX500Name;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+
+public class IOUBatchFlowTest extends AbstractFlowTest {
+
+    @Test
+    public void testTransaction() throws Exception {
+        StartedMockNode nodeC = mockNetwork.createPartyNode(new CordaX500Name("NodeC", "Paris", "FR"));
+        Party cParty = nodeC.getInfo().getLegalIdentities().get(0);
+        mockNetwork.runNetwork();
+
+        IOUBatchFlow.Initiator flow = new IOUBatchFlow.Initiator(ImmutableList.of(bParty, cParty, bParty),
+            ImmutableList.of(10, 20, 30));
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(flow);
+        mockNetwork.runNetwork();
+        SignedTransaction signedTransaction = future.get();
+
+        List<IOUState> ious = signedTransaction.getTx().outputsOfType(IOUState.class);
+        assertThat("IOU per value expected", ious.size(), is(3));
+        assertThat("Wrong borrower", ious.get(1).getBorrower(), is(cParty));
+        assertThat("Wrong amount value", ious.get(2).getValue(), is(30));
+
+        assertThat("One command expected", signedTransaction.getTx().getCommands().size(), is(1));
+        Command command = signedTransaction.getTx().getCommands().get(0);
+        assertThat("Lender and each borrower once expected in signers list", command.getSigners().size(), is(3));
+        assertTrue("Keys of all nodes should be present in signers list", command.getSigners().containsAll(
+            Arrays.asList(aParty.getOwningKey(), bParty.getOwningKey(), cParty.getOwningKey())));
+
+        for (StartedMockNode node : ImmutableList.of(nodeB, nodeC)) {
+            assertThat("Transaction should be recorded by borrower",
+                node.getServices().getValidatedTransactions().getTransaction(signedTransaction.getId()),
+                is(signedTransaction));
+        }
+    }
+}
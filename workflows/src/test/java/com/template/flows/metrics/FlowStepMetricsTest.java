@@ -0,0 +1,56 @@
+package com.template.flows.metrics;
+
+import static com.template.flows.tracker.ProgressTrackerBuilder.GATHERING_SIGS;
+import static com.template.flows.tracker.ProgressTrackerBuilder.GENERATING_TRANSACTION;
+import static com.template.flows.tracker.ProgressTrackerBuilder.VERIFYING_TRANSACTION;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.template.flows.tracker.ProgressTrackerBuilder;
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import net.corda.core.flows.FlowException;
+import net.corda.core.utilities.ProgressTracker;
+import org.junit.Test;
+
+public class FlowStepMetricsTest {
+
+    private static class CompletedFlow {
+    }
+
+    private static class FailedFlow {
+    }
+
+    @Test
+    public void stepsOfCompletedFlowAreRecorded() throws Exception {
+        ProgressTracker tracker = ProgressTrackerBuilder.build(CompletedFlow.class);
+        tracker.setCurrentStep(GENERATING_TRANSACTION);
+        tracker.setCurrentStep(VERIFYING_TRANSACTION);
+        Thread.sleep(5);
+        tracker.setCurrentStep(ProgressTracker.DONE.INSTANCE);
+
+        FlowStepLatencyMXBean generating = FlowStepMetrics.getLatency(CompletedFlow.class, GENERATING_TRANSACTION);
+        assertThat(generating.getCount(), is(1L));
+        FlowStepLatencyMXBean verifying = FlowStepMetrics.getLatency(CompletedFlow.class, VERIFYING_TRANSACTION);
+        assertThat(verifying.getCount(), is(1L));
+        assertThat("Step duration expected", verifying.getMaxMillis() >= 5, is(true));
+        assertThat("Not visited step shouldn't be recorded",
+            FlowStepMetrics.getLatency(CompletedFlow.class, GATHERING_SIGS), is(nullValue()));
+
+        ObjectName name = new ObjectName("com.template.flows:type=FlowStepLatency,flow="
+            + ObjectName.quote(CompletedFlow.class.getName()) + ",step=" + ObjectName.quote(VERIFYING_TRANSACTION.getLabel()));
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Count"), is(1L));
+    }
+
+    @Test
+    public void lastStepOfFailedFlowIsNotRecorded() {
+        ProgressTracker tracker = ProgressTrackerBuilder.build(FailedFlow.class);
+        tracker.setCurrentStep(GENERATING_TRANSACTION);
+        tracker.setCurrentStep(VERIFYING_TRANSACTION);
+        tracker.endWithError(new FlowException("Contract verification failed"));
+
+        assertThat(FlowStepMetrics.getLatency(FailedFlow.class, GENERATING_TRANSACTION).getCount(), is(1L));
+        assertThat(FlowStepMetrics.getLatency(FailedFlow.class, VERIFYING_TRANSACTION), is(nullValue()));
+    }
+}
@@ -0,0 +1,44 @@
+package com.template.flows.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount(), is(0L));
+        assertEquals(0, histogram.getMeanMillis(), 0);
+        assertEquals(0, histogram.getPercentileMillis(99), 0);
+    }
+
+    @Test
+    public void percentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        assertThat(histogram.getCount(), is(100L));
+        assertEquals(50.5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(100, histogram.getMaxMillis(), 1e-9);
+        assertEquals(50, histogram.getPercentileMillis(50), 5);
+        assertEquals(95, histogram.getPercentileMillis(95), 9.5);
+        assertEquals(99, histogram.getPercentileMillis(99), 9.9);
+        assertEquals(100, histogram.getPercentileMillis(100), 1e-9);
+    }
+
+    @Test
+    public void outOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(0);
+        histogram.record(TimeUnit.DAYS.toNanos(365));
+        assertThat("Negative value should be skipped", histogram.getCount(), is(2L));
+        assertEquals(TimeUnit.DAYS.toMillis(365), histogram.getPercentileMillis(100), 1e-3);
+    }
+}
@@ -0,0 +1,107 @@
+package com.template.flows.notary;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.template.flows.iou.IOUFlow;
+import com.template.flows.xogame.MakeStepFlow;
+import com.template.flows.xogame.StartGameFlow;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.flows.FlowLogic;
+import net.corda.core.identity.CordaX500Name;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.testing.node.MockNetwork;
+import net.corda.testing.node.MockNetworkNotarySpec;
+import net.corda.testing.node.MockNetworkParameters;
+import net.corda.testing.node.StartedMockNode;
+import net.corda.testing.node.TestCordapp;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class NotarySelectorTest {
+
+    private static final CordaX500Name NOTARY_1 = new CordaX500Name("Notary1", "London", "GB");
+    private static final CordaX500Name NOTARY_2 = new CordaX500Name("Notary2", "Zurich", "CH");
+
+    @Rule
+    public Timeout globalTimeout = new Timeout(2, TimeUnit.MINUTES);
+
+    private MockNetwork mockNetwork;
+    private StartedMockNode nodeA;
+    private Party bParty;
+
+    @After
+    public void tearDown() {
+        mockNetwork.stopNodes();
+    }
+
+    @Test
+    public void pinnedNotaryIsUsedByAllFlows() throws Exception {
+        startNetwork(ImmutableMap.of(NotarySelector.STRATEGY_KEY, "pinned", NotarySelector.NAME_KEY, NOTARY_2.toString()));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat("Pinned notary expected", notaryOf(run(new IOUFlow.Initiator(bParty, 10))), is(NOTARY_2));
+        }
+    }
+
+    @Test
+    public void firstNotaryOfNetworkParametersIsPinnedByDefault() throws Exception {
+        startNetwork(ImmutableMap.of());
+        Party expected = nodeA.getServices().getNetworkMapCache().getNotaryIdentities().get(0);
+
+        assertThat("First notary of network parameters expected", notaryOf(run(new IOUFlow.Initiator(bParty, 10))),
+            is(expected.getName()));
+    }
+
+    @Test
+    public void roundRobinSpreadsTransactionsOverNotaries() throws Exception {
+        startNetwork(ImmutableMap.of(NotarySelector.STRATEGY_KEY, "round-robin"));
+
+        CordaX500Name first = notaryOf(run(new IOUFlow.Initiator(bParty, 10)));
+        CordaX500Name second = notaryOf(run(new IOUFlow.Initiator(bParty, 20)));
+        assertThat("Next notary expected", second, is(not(first)));
+        assertThat("First notary expected again", notaryOf(run(new IOUFlow.Initiator(bParty, 30))), is(first));
+    }
+
+    @Test
+    public void stickyNotaryIsKeptByGameMoves() throws Exception {
+        startNetwork(ImmutableMap.of(NotarySelector.STRATEGY_KEY, "sticky"));
+        Party expected = nodeA.getServices().cordaService(NotarySelector.class).select("Game Id");
+
+        SignedTransaction start = run(new StartGameFlow.Initiator("Game Id", bParty));
+        assertThat("Notary chosen by game id expected", notaryOf(start), is(expected.getName()));
+
+        SignedTransaction step = run(new MakeStepFlow.Initiator("Game Id", bParty, "----X----"));
+        assertThat("Notary of game state expected", notaryOf(step), is(expected.getName()));
+    }
+
+    private void startNetwork(Map<String, ?> config) {
+        mockNetwork = new MockNetwork(new MockNetworkParameters()
+            .withCordappsForAllNodes(ImmutableList.of(
+                TestCordapp.findCordapp("com.template.contracts"),
+                TestCordapp.findCordapp("com.template.flows").withConfig(config)))
+            .withNotarySpecs(ImmutableList.of(new MockNetworkNotarySpec(NOTARY_1), new MockNetworkNotarySpec(NOTARY_2))));
+        nodeA = mockNetwork.createPartyNode(new CordaX500Name("NodeA", "London", "GB"));
+        StartedMockNode nodeB = mockNetwork.createPartyNode(new CordaX500Name("NodeB", "Minsk", "BY"));
+        bParty = nodeB.getInfo().getLegalIdentities().get(0);
+        mockNetwork.runNetwork(-1);
+    }
+
+    private SignedTransaction run(FlowLogic<SignedTransaction> flow) throws Exception {
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(flow);
+        mockNetwork.runNetwork();
+        return future.get();
+    }
+
+    private static CordaX500Name notaryOf(SignedTransaction tx) {
+        return tx.getNotary().getName();
+    }
+}
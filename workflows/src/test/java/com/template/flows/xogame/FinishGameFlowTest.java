@@ -0,0 +1,70 @@
+package com.template.flows.xogame;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.template.contracts.XoGameContract;
+import com.template.flows.AbstractFlowTest;
+import com.template.schema.XoGameCriteria;
+import com.template.states.XoGameState;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.flows.FlowException;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+
+public class FinishGameFlowTest extends AbstractFlowTest {
+
+    @Test
+    public void finishedGameIsRemovedFromVaults() throws Exception {
+        startGame("Finished game");
+        CordaFuture<Void> acceptFuture = nodeB.startFlow(new MakeStepsFlow.AcceptMoves("Finished game",
+            ImmutableList.of("X--O-----", "XX-OO----")));
+        mockNetwork.runNetwork();
+        acceptFuture.get();
+        CordaFuture<List<SignedTransaction>> movesFuture = nodeA.startFlow(new MakeStepsFlow.Initiator("Finished game", bParty,
+            ImmutableList.of("X--------", "X--O-----", "XX-O-----", "XX-OO----", "XXXOO----")));
+        mockNetwork.runNetwork();
+        movesFuture.get();
+
+        CordaFuture<SignedTransaction> future = nodeB.startFlow(new FinishGameFlow.Initiator("Finished game", aParty));
+        mockNetwork.runNetwork();
+        SignedTransaction signedTransaction = future.get();
+
+        assertThat("One input expected", signedTransaction.getTx().getInputs().size(), is(1));
+        assertThat("No outputs expected", signedTransaction.getTx().getOutputs().isEmpty(), is(true));
+        assertThat("Wrong instance type", signedTransaction.getTx().getCommands().get(0).getValue(),
+            instanceOf(XoGameContract.Commands.FinishGame.class));
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            int unconsumed = node.transaction(() -> node.getServices().getVaultService()
+                .queryBy(XoGameState.class, XoGameCriteria.byGameId("Finished game")).getStates().size());
+            assertThat("No unconsumed state expected", unconsumed, is(0));
+        }
+    }
+
+    @Test
+    public void gameInProgressCantBeFinished() throws Exception {
+        startGame("Running game");
+
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(new FinishGameFlow.Initiator("Running game", bParty));
+        mockNetwork.runNetwork();
+        try {
+            future.get();
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(FlowException.class));
+            assertThat(e.getCause().getMessage(), is("Game is not finished yet"));
+        }
+    }
+
+    private void startGame(String gameId) throws Exception {
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(new StartGameFlow.Initiator(gameId, bParty));
+        mockNetwork.runNetwork();
+        future.get();
+    }
+}
@@ -0,0 +1,80 @@
+package com.template.flows.xogame;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.template.flows.AbstractFlowTest;
+import com.template.model.XoGameField;
+import com.template.schema.XoGameCriteria;
+import com.template.states.XoGameState;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.flows.FlowException;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+
+public class GameChannelFlowTest extends AbstractFlowTest {
+
+    @Test
+    public void wholeGameIsPlayedOverChannel() throws Exception {
+        CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator("Channel game", bParty));
+        mockNetwork.runNetwork();
+        startGameFuture.get();
+
+        CordaFuture<List<SignedTransaction>> future = nodeA.startFlow(new GameChannelFlow.Initiator("Channel game", bParty));
+        mockNetwork.runNetwork();
+
+        // Invalid move of NodeA is dropped by channel
+        submit(nodeA, "XXXXXXXXX", "X--------", "XX-O-----", "XXXOO----");
+        submit(nodeB, "X--O-----", "XX-OO----");
+        // Channel of NodeA sleeps while waiting for its first move, so network is run until the game is played
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!future.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(GameChannelFlow.MIN_POLL_INTERVAL.toMillis());
+            mockNetwork.runNetwork();
+        }
+        List<SignedTransaction> moves = future.get();
+
+        assertThat("Transaction per valid move expected", moves.size(), is(5));
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            List<StateAndRef<XoGameState>> states = node.transaction(() -> node.getServices().getVaultService()
+                .queryBy(XoGameState.class, XoGameCriteria.byGameId("Channel game"), new PageSpecification(1, 2))
+                .getStates());
+            assertThat("Only unconsumed state expected", states.size(), is(1));
+            XoGameField field = states.get(0).getState().getData().getGameField();
+            assertThat("Wrong game field", field, is(new XoGameField("XXXOO----")));
+            assertThat("Game should be over", field.isGameOver(), is(true));
+        }
+    }
+
+    @Test
+    public void moveWithoutOpenChannelIsRejected() throws Exception {
+        CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator("Channel game", bParty));
+        mockNetwork.runNetwork();
+        startGameFuture.get();
+
+        try {
+            submit(nodeA, "X--------");
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(FlowException.class));
+            assertThat(e.getCause().getMessage(), containsString("No open channel for game Channel game"));
+        }
+    }
+
+    private void submit(StartedMockNode node, String... newFields) throws Exception {
+        for (String newField : newFields) {
+            CordaFuture<Void> future = node.startFlow(new GameChannelFlow.SubmitMove("Channel game", newField));
+            mockNetwork.runNetwork();
+            future.get();
+        }
+    }
+}
@@ -4,19 +4,28 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import com.google.common.collect.ImmutableList;
 import com.template.contracts.XoGameContract;
 import com.template.flows.AbstractFlowTest;
 import com.template.model.XoGameField;
+import com.template.schema.XoGameCriteria;
 import com.template.states.XoGameState;
 import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import liquibase.util.StringUtils;
 import net.corda.core.concurrent.CordaFuture;
 import net.corda.core.contracts.Command;
+import net.corda.core.contracts.StateAndRef;
 import net.corda.core.contracts.TransactionState;
+import net.corda.core.flows.FlowException;
 import net.corda.core.identity.Party;
+import net.corda.core.node.services.vault.PageSpecification;
 import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.utilities.NonEmptySet;
 import net.corda.testing.node.StartedMockNode;
 import org.junit.Test;
 
@@ -65,4 +74,46 @@ public class MakeStepFlowTest extends AbstractFlowTest {
                 command.getSigners().containsAll(Arrays.asList(aParty.getOwningKey(), bParty.getOwningKey())), is(true));
         }
     }
+
+    @Test
+    public void latestGameStateFoundByGameId() throws Exception {
+        for (String gameId : ImmutableList.of("First game", "Second game")) {
+            CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator(gameId, bParty));
+            mockNetwork.runNetwork();
+            startGameFuture.get();
+        }
+        CordaFuture<SignedTransaction> makeStepFuture = nodeA.startFlow(new MakeStepFlow.Initiator("Second game", bParty, "----X----"));
+        mockNetwork.runNetwork();
+        makeStepFuture.get();
+
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            List<StateAndRef<XoGameState>> states = node.transaction(() -> node.getServices().getVaultService()
+                .queryBy(XoGameState.class, XoGameCriteria.byGameId("Second game"), new PageSpecification(1, 1))
+                .getStates());
+            assertThat("Only unconsumed state expected", states.size(), is(1));
+            assertThat("Wrong game id", states.get(0).getState().getData().getGameId(), is("Second game"));
+            assertThat("Wrong game field", states.get(0).getState().getData().getGameField(), is(new XoGameField("----X----")));
+        }
+    }
+
+    @Test
+    public void moveOfGameLockedByAnotherFlowFailsFast() throws Exception {
+        CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator("Locked game", bParty));
+        mockNetwork.runNetwork();
+        StateAndRef<XoGameState> state = startGameFuture.get().getTx().outRef(0);
+        nodeA.transaction(() -> {
+            nodeA.getServices().getVaultService().softLockReserve(UUID.randomUUID(), NonEmptySet.of(state.getRef()));
+            return null;
+        });
+
+        CordaFuture<SignedTransaction> makeStepFuture = nodeA.startFlow(new MakeStepFlow.Initiator("Locked game", bParty, "----X----"));
+        mockNetwork.runNetwork();
+        try {
+            makeStepFuture.get();
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(FlowException.class));
+            assertThat(e.getCause().getMessage(), is("Game Locked game is being changed by another flow"));
+        }
+    }
 }
@@ -0,0 +1,150 @@
+package com.template.flows.xogame;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import co.paralleluniverse.fibers.Suspendable;
+import com.google.common.collect.ImmutableList;
+import com.template.contracts.XoGameContract;
+import com.template.flows.AbstractFlowTest;
+import com.template.model.XoGameField;
+import com.template.schema.XoGameCriteria;
+import com.template.states.XoGameState;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.contracts.Command;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.flows.FlowException;
+import net.corda.core.identity.Party;
+import net.corda.core.node.services.vault.PageSpecification;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+
+public class MakeStepsFlowTest extends AbstractFlowTest {
+
+    @Test
+    public void testTransactionChain() throws Exception {
+        CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator("Replayed game", bParty));
+        mockNetwork.runNetwork();
+        startGameFuture.get();
+
+        acceptMoves(nodeB, "Replayed game", ImmutableList.of("----XO---"));
+        List<String> moves = ImmutableList.of("----X----", "----XO---", "X---XO---");
+        CordaFuture<List<SignedTransaction>> future = nodeA.startFlow(new MakeStepsFlow.Initiator("Replayed game", bParty, moves));
+        mockNetwork.runNetwork();
+        List<SignedTransaction> transactions = future.get();
+
+        assertThat("Transaction per move expected", transactions.size(), is(moves.size()));
+        for (int i = 1; i < transactions.size(); i++) {
+            assertThat("Each move should consume output of previous one",
+                transactions.get(i).getTx().getInputs().get(0).getTxhash(), is(transactions.get(i - 1).getId()));
+        }
+
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            List<StateAndRef<XoGameState>> states = node.transaction(() -> node.getServices().getVaultService()
+                .queryBy(XoGameState.class, XoGameCriteria.byGameId("Replayed game"), new PageSpecification(1, 2))
+                .getStates());
+            assertThat("Only unconsumed state expected", states.size(), is(1));
+            XoGameState state = states.get(0).getState().getData();
+            assertThat("Wrong game field", state.getGameField(), is(new XoGameField("X---XO---")));
+            assertThat("Wrong next turn owner", state.getNextTurnOwner(), is(bParty));
+        }
+    }
+
+    @Test
+    public void movesOfCounterpartyShouldBeAcceptedByIt() throws Exception {
+        CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator("Bot game", bParty));
+        mockNetwork.runNetwork();
+        startGameFuture.get();
+        acceptMoves(nodeB, "Bot game", ImmutableList.of("O---X----"));
+
+        CordaFuture<List<SignedTransaction>> future = nodeA.startFlow(new MakeStepsFlow.Initiator("Bot game", bParty,
+            ImmutableList.of("----X----", "----XO---")));
+        mockNetwork.runNetwork();
+        try {
+            future.get();
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(FlowException.class));
+            assertThat(e.getCause().getMessage(), containsString("Moves [----XO---] of game Bot game weren't accepted by"));
+        }
+
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            List<StateAndRef<XoGameState>> states = node.transaction(() -> node.getServices().getVaultService()
+                .queryBy(XoGameState.class, XoGameCriteria.byGameId("Bot game")).getStates());
+            assertThat("No move of rejected chain should be recorded", states.get(0).getState().getData().getGameField(),
+                is(XoGameField.empty()));
+        }
+    }
+
+    @Test
+    public void linkBreakingContractShouldBeRefused() throws Exception {
+        CordaFuture<SignedTransaction> startGameFuture = nodeA.startFlow(new StartGameFlow.Initiator("Forged game", bParty));
+        mockNetwork.runNetwork();
+        startGameFuture.get();
+        acceptMoves(nodeB, "Forged game", ImmutableList.of("----XO---"));
+
+        CordaFuture<List<SignedTransaction>> future = nodeA.startFlow(new ForgedChainInitiator("Forged game", bParty));
+        mockNetwork.runNetwork();
+        try {
+            future.get();
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(FlowException.class));
+            assertThat(e.getCause().getMessage(), containsString("Move should be signed by both players"));
+        }
+    }
+
+    private void acceptMoves(StartedMockNode node, String gameId, List<String> newFields) throws Exception {
+        CordaFuture<Void> future = node.startFlow(new MakeStepsFlow.AcceptMoves(gameId, newFields));
+        mockNetwork.runNetwork();
+        future.get();
+    }
+
+    /**
+     * Sends chain whose second link is signed by initiator only, so it can't be verified by contract before signing
+     */
+    public static class ForgedChainInitiator extends MakeStepsFlow.Initiator {
+
+        private final String gameId;
+        private final Party opponent;
+
+        public ForgedChainInitiator(String gameId, Party opponent) {
+            super(gameId, opponent, ImmutableList.of());
+            this.gameId = gameId;
+            this.opponent = opponent;
+        }
+
+        @Suspendable
+        @Override
+        public List<SignedTransaction> call() throws FlowException {
+            StateAndRef<XoGameState> current = getServiceHub().cordaService(XoGameStateLookup.class)
+                .findCurrentState(gameId);
+            XoGameState game = current.getState().getData();
+            SignedTransaction first = link(current, "----X----", opponent,
+                ImmutableList.of(game.getPlayer1().getOwningKey(), game.getPlayer2().getOwningKey()));
+            SignedTransaction second = link(first.getTx().outRef(0), "----XO---", getOurIdentity(),
+                ImmutableList.of(getOurIdentity().getOwningKey()));
+            initiateFlow(opponent).sendAndReceive(List.class, ImmutableList.of(first, second));
+            return ImmutableList.of(first, second);
+        }
+
+        private SignedTransaction link(StateAndRef<XoGameState> input, String newField, Party nextTurnOwner,
+            List<PublicKey> signers) {
+            XoGameState in = input.getState().getData();
+            XoGameState out = new XoGameState(gameId, in.getPlayer1(), in.getPlayer2(), nextTurnOwner,
+                XoGameField.valueOf(newField));
+            return getServiceHub().signInitialTransaction(new TransactionBuilder(input.getState().getNotary())
+                .addInputState(input)
+                .addOutputState(out, XoGameContract.ID)
+                .addCommand(new Command<>(new XoGameContract.Commands.MakeStep(), signers)));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.template.flows.xogame;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.template.flows.AbstractFlowTest;
+import com.template.schema.XoGameCriteria;
+import com.template.states.XoGameState;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+
+public class MigrateGameSchemaFlowTest extends AbstractFlowTest {
+
+    @Test
+    public void gamesWithoutV2RowsAreMigrated() throws Exception {
+        startOldGame("Old game");
+        assertThat("Game without V2 row isn't found", countGames("Old game"), is(0));
+
+        assertThat(migrate(), is(1));
+        assertThat("Migrated game is found", countGames("Old game"), is(1));
+
+        assertThat("Nothing to migrate on second run", migrate(), is(0));
+    }
+
+    @Test
+    public void gameWithoutV2RowIsMovedBeforeMigration() throws Exception {
+        startOldGame("Old game");
+
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(new MakeStepFlow.Initiator("Old game", bParty, "----X----"));
+        mockNetwork.runNetwork();
+        future.get();
+        assertThat("Game with new move is found", countGames("Old game"), is(1));
+    }
+
+    /**
+     * The same as game recorded before upgrade: only V1 row exists
+     */
+    private void startOldGame(String gameId) throws Exception {
+        CordaFuture<SignedTransaction> startFuture = nodeA.startFlow(new StartGameFlow.Initiator(gameId, bParty));
+        mockNetwork.runNetwork();
+        startFuture.get();
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            node.transaction(() -> {
+                node.getServices().withEntityManager(entityManager -> {
+                    entityManager.createQuery("delete from PersistentXoGameV2").executeUpdate();
+                });
+                return null;
+            });
+        }
+    }
+
+    private int migrate() throws Exception {
+        CordaFuture<Integer> future = nodeA.startFlow(new MigrateGameSchemaFlow());
+        mockNetwork.runNetwork();
+        return future.get();
+    }
+
+    private int countGames(String gameId) {
+        return nodeA.transaction(() -> nodeA.getServices().getVaultService()
+            .queryBy(XoGameState.class, XoGameCriteria.byGameId(gameId)).getStates().size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.template.flows.xogame;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.template.contracts.XoGameContract;
+import com.template.flows.AbstractFlowTest;
+import com.template.states.XoGameState;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.contracts.Command;
+import net.corda.core.flows.FlowException;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Test;
+
+public class StartGamesBatchFlowTest extends AbstractFlowTest {
+
+    @Test
+    public void testTransaction() throws Exception {
+        final List<String> gameIds = ImmutableList.of("Game 1", "Game 2", "Game 3");
+        StartGamesBatchFlow.Initiator flow = new StartGamesBatchFlow.Initiator(gameIds, bParty);
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(flow);
+        mockNetwork.runNetwork();
+        SignedTransaction signedTransaction = future.get();
+
+        // We check the recorded transaction in both vaults.
+        for (StartedMockNode node : ImmutableList.of(nodeA, nodeB)) {
+            SignedTransaction recordedTx = node.getServices().getValidatedTransactions().getTransaction(signedTransaction.getId());
+            assertEquals(signedTransaction, recordedTx);
+
+            assertThat("No inputs expected", recordedTx.getTx().getInputs().isEmpty(), is(true));
+            List<XoGameState> games = recordedTx.getTx().outputsOfType(XoGameState.class);
+            assertThat("Game per id expected", games.stream().map(XoGameState::getGameId).collect(Collectors.toList()), is(gameIds));
+            for (XoGameState game : games) {
+                assertThat("Wrong player1", game.getPlayer1(), is(aParty));
+                assertThat("Wrong player2", game.getPlayer2(), is(bParty));
+            }
+
+            assertThat("One command expected", recordedTx.getTx().getCommands().size(), is(1));
+            Command command = recordedTx.getTx().getCommands().get(0);
+            assertThat("Wrong instance type", command.getValue(), instanceOf(XoGameContract.Commands.StartGame.class));
+        }
+    }
+
+    @Test
+    public void failsWithoutGameIds() throws Exception {
+        StartGamesBatchFlow.Initiator flow = new StartGamesBatchFlow.Initiator(ImmutableList.of(), bParty);
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(flow);
+        mockNetwork.runNetwork();
+        try {
+            future.get();
+            fail("Exception should be thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(FlowException.class));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.template.flows.xogame;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.template.contracts.XoGameContract;
+import com.template.flows.AbstractFlowTest;
+import com.template.model.XoGameField;
+import com.template.states.XoGameState;
+import net.corda.core.concurrent.CordaFuture;
+import net.corda.core.contracts.Command;
+import net.corda.core.contracts.StateAndRef;
+import net.corda.core.flows.FlowException;
+import net.corda.core.identity.Party;
+import net.corda.core.transactions.SignedTransaction;
+import net.corda.core.transactions.TransactionBuilder;
+import net.corda.testing.node.StartedMockNode;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XoGameMoveValidatorTest extends AbstractFlowTest {
+
+    private StateAndRef<XoGameState> started;
+
+    @Before
+    public void startGame() throws Exception {
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(new StartGameFlow.Initiator("Validated game", bParty));
+        mockNetwork.runNetwork();
+        started = future.get().getTx().outRef(0);
+    }
+
+    @Test
+    public void legalMoveIsAccepted() throws Exception {
+        assertThat("Move should be accepted", validate(propose(nodeA, started, "----X----", bParty), aParty), nullValue());
+    }
+
+    @Test
+    public void staleMoveIsRejected() throws Exception {
+        CordaFuture<SignedTransaction> future = nodeA.startFlow(new MakeStepFlow.Initiator("Validated game", bParty, "----X----"));
+        mockNetwork.runNetwork();
+        future.get();
+
+        // Proposal still consumes the initial state
+        assertRejected(propose(nodeA, started, "X--------", bParty), aParty,
+            "Move is stale: it doesn't consume the latest state of game Validated game");
+    }
+
+    @Test
+    public void outOfTurnMoveIsRejected() throws Exception {
+        assertRejected(propose(nodeA, started, "----X----", bParty), bParty,
+            "Move is out of turn: it's not " + bParty.getName() + " turn");
+    }
+
+    @Test
+    public void illegalBoardChangeIsRejected() throws Exception {
+        assertRejected(propose(nodeA, started, "X---X----", bParty), aParty,
+            "Move is illegal: exactly one empty cell should be taken by X");
+    }
+
+    @Test
+    public void turnShouldPassToOpponent() throws Exception {
+        assertRejected(propose(nodeA, started, "----X----", aParty), aParty,
+            "Turn should pass to " + bParty.getName());
+    }
+
+    private SignedTransaction propose(StartedMockNode node, StateAndRef<XoGameState> input, String newField, Party nextTurnOwner) {
+        XoGameState in = input.getState().getData();
+        XoGameState out = new XoGameState(in.getGameId(), in.getPlayer1(), in.getPlayer2(), nextTurnOwner,
+            XoGameField.valueOf(newField));
+        TransactionBuilder txBuilder = new TransactionBuilder(input.getState().getNotary())
+            .addInputState(input)
+            .addOutputState(out, XoGameContract.ID)
+            .addCommand(new Command<>(new XoGameContract.Commands.MakeStep(),
+                ImmutableList.of(aParty.getOwningKey(), bParty.getOwningKey())));
+        return node.transaction(() -> node.getServices().signInitialTransaction(txBuilder));
+    }
+
+    private void assertRejected(SignedTransaction move, Party mover, String message) {
+        assertThat("Move should be rejected", validate(move, mover), is(message));
+    }
+
+    /**
+     * @return message of rejection by NodeB or null when move is accepted
+     */
+    private String validate(SignedTransaction move, Party mover) {
+        return nodeB.transaction(() -> {
+            try {
+                XoGameMoveValidator.checkMove(nodeB.getServices(), move, mover);
+                return null;
+            } catch (FlowException e) {
+                return e.getMessage();
+            }
+        });
+    }
+}